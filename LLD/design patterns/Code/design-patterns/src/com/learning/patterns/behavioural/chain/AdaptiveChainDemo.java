@@ -0,0 +1,52 @@
+package com.learning.patterns.behavioural.chain;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Client: Shows AdaptiveHandlerChain moving the frequently-rejecting
+ * BalanceHandler ahead of the rarely-rejecting AmountLimitHandler, then
+ * following the traffic when over-limit payments become the common rejection.
+ */
+public class AdaptiveChainDemo {
+
+    static void main() {
+        AdaptiveHandlerChain chain = new AdaptiveHandlerChain(50, TimeUnit.MILLISECONDS,
+                new AmountLimitHandler(), new BalanceHandler(), new KYCHandler(), new FraudHandler());
+
+        System.out.println("Initial order: " + names(chain));
+
+        // Traffic where ~1% exceed the UPI limit but ~40% have insufficient balance
+        Random random = new Random(1);
+        send(chain, random, 1, 40);
+        System.out.println("Adapted order: " + names(chain));
+        chain.stats().forEach(stat -> System.out.println("  " + stat));
+
+        // The mix changes: ~40% exceed the limit, ~1% have insufficient balance
+        send(chain, random, 40, 1);
+        System.out.println("After the mix changed: " + names(chain));
+        chain.stats().forEach(stat -> System.out.println("  " + stat));
+    }
+
+    private static void send(AdaptiveHandlerChain chain, Random random, int overLimitPercent, int lowBalancePercent) {
+        PrintStream console = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            for (int i = 0; i < 200_000; i++) {
+                double amount = random.nextInt(100) < overLimitPercent ? 150_000 : 1_000 + random.nextInt(50_000);
+                double balance = random.nextInt(100) < lowBalancePercent ? amount / 2 : amount * 2;
+                chain.handle(new PaymentRequest(amount, balance, random.nextInt(100) < 97, random.nextInt(1000) == 0));
+            }
+        } finally {
+            System.setOut(console);
+        }
+        chain.reorder();
+    }
+
+    private static List<String> names(AdaptiveHandlerChain chain) {
+        return chain.currentOrder().stream().map(handler -> handler.getClass().getSimpleName()).toList();
+    }
+}
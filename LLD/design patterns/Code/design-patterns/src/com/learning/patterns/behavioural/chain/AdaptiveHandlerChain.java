@@ -0,0 +1,195 @@
+package com.learning.patterns.behavioural.chain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * AdaptiveHandlerChain:
+ * A chain link that owns a group of handlers and keeps re-ordering them based on
+ * what it observes in live traffic.
+ * - Every check records whether it rejected into that handler's HandlerStats.
+ *   Only 1 in HandlerStats.COST_SAMPLE_RATE requests is timed (and checks the
+ *   reorder deadline), so the rest of the path reads no clock.
+ * - Once per reorder interval, each run of consecutive independent handlers is
+ *   sorted by costPerRejection() (average cost / rejection rate), which minimises
+ *   the expected cost per request for AND-ed checks. Non-independent handlers stay
+ *   where they were configured and act as barriers. Stats are decayed at each
+ *   reorder, so the order follows changes in the traffic mix.
+ * - The order is an immutable int[] swapped in via a volatile write, so request
+ *   threads never lock; only one thread performs a reorder at a time.
+ * - currentOrder() and stats() expose the current decision for inspection.
+ */
+public class AdaptiveHandlerChain extends BaseHandler {
+
+    private final PaymentHandler[] handlers;
+    private final HandlerStats[] stats;
+    private final long reorderIntervalNanos;
+    private final AtomicBoolean reordering = new AtomicBoolean();
+
+    private volatile int[] order;
+    private volatile long nextReorderAt;
+
+    public AdaptiveHandlerChain(PaymentHandler... handlers) {
+        this(1, TimeUnit.SECONDS, handlers);
+    }
+
+    public AdaptiveHandlerChain(long reorderInterval, TimeUnit unit, PaymentHandler... handlers) {
+        if (handlers.length == 0) {
+            throw new IllegalArgumentException("An adaptive chain needs at least one handler");
+        }
+        this.handlers = handlers.clone();
+        this.stats = new HandlerStats[handlers.length];
+        int[] initial = new int[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            stats[i] = new HandlerStats();
+            initial[i] = i;
+        }
+        this.order = initial;
+        this.reorderIntervalNanos = unit.toNanos(reorderInterval);
+        this.nextReorderAt = System.nanoTime() + reorderIntervalNanos;
+    }
+
+    // The chain's own rule is defined by its members; ValidationPipeline inlines them.
+    @Override
+    public ValidationRule rule() {
+        return null;
+    }
+
+    @Override
+    public boolean rejects(PaymentRequest request) {
+        return firstRejection(request) != null;
+    }
+
+    @Override
+    public void handle(PaymentRequest request) {
+        PaymentHandler rejectedBy = firstRejection(request);
+        if (rejectedBy != null) {
+            System.out.println("❌ Transaction failed: " + rejectedBy.rule().getReason());
+            return;
+        }
+        System.out.println("✅ Adaptive checks passed");
+        passToNext(request);
+    }
+
+    @Override
+    public void handleBatch(PaymentBatch batch, long[] rejected) {
+        for (PaymentHandler handler : currentOrder()) {
+            batch.markRejected(handler.rule(), rejected);
+        }
+        if (nextHandler != null) {
+            nextHandler.handleBatch(batch, rejected);
+        }
+    }
+
+    private PaymentHandler firstRejection(PaymentRequest request) {
+        int[] current = order;
+        if (ThreadLocalRandom.current().nextInt(HandlerStats.COST_SAMPLE_RATE) != 0) {
+            for (int index : current) {
+                boolean rejected = handlers[index].rejects(request);
+                stats[index].record(rejected);
+                if (rejected) {
+                    return handlers[index];
+                }
+            }
+            return null;
+        }
+        PaymentHandler rejectedBy = null;
+        long start = System.nanoTime();
+        for (int index : current) {
+            boolean rejected = handlers[index].rejects(request);
+            long end = System.nanoTime();
+            stats[index].record(rejected);
+            stats[index].recordCost(end - start);
+            start = end;
+            if (rejected) {
+                rejectedBy = handlers[index];
+                break;
+            }
+        }
+        if (start >= nextReorderAt) {
+            reorder();
+        }
+        return rejectedBy;
+    }
+
+    /*
+     * Recomputes the order from the current stats, then decays them. Safe to
+     * call at any time; concurrent callers skip instead of waiting.
+     */
+    public void reorder() {
+        if (!reordering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            HandlerStats.Snapshot[] snapshots = snapshotAll();
+            for (HandlerStats handlerStats : stats) {
+                handlerStats.decay();
+            }
+            Integer[] next = new Integer[handlers.length];
+            int[] current = order;
+            for (int i = 0; i < current.length; i++) {
+                next[i] = current[i];
+            }
+            Comparator<Integer> byExpectedCost = Comparator.comparingDouble(i -> snapshots[i].costPerRejection());
+            int runStart = 0;
+            while (runStart < next.length) {
+                if (!handlers[next[runStart]].isIndependent()) {
+                    runStart++;
+                    continue;
+                }
+                int runEnd = runStart;
+                while (runEnd < next.length && handlers[next[runEnd]].isIndependent()) {
+                    runEnd++;
+                }
+                Arrays.sort(next, runStart, runEnd, byExpectedCost);
+                runStart = runEnd;
+            }
+            int[] reordered = new int[next.length];
+            for (int i = 0; i < next.length; i++) {
+                reordered[i] = next[i];
+            }
+            order = reordered;
+            nextReorderAt = System.nanoTime() + reorderIntervalNanos;
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    public List<PaymentHandler> currentOrder() {
+        int[] current = order;
+        List<PaymentHandler> result = new ArrayList<>(current.length);
+        for (int index : current) {
+            result.add(handlers[index]);
+        }
+        return result;
+    }
+
+    // Stats in the current evaluation order.
+    public List<HandlerStats.Snapshot> stats() {
+        int[] current = order;
+        List<HandlerStats.Snapshot> result = new ArrayList<>(current.length);
+        for (int index : current) {
+            result.add(stats[index].snapshot(handlers[index]));
+        }
+        return result;
+    }
+
+    public void resetStats() {
+        for (HandlerStats handlerStats : stats) {
+            handlerStats.reset();
+        }
+    }
+
+    private HandlerStats.Snapshot[] snapshotAll() {
+        HandlerStats.Snapshot[] snapshots = new HandlerStats.Snapshot[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            snapshots[i] = stats[i].snapshot(handlers[i]);
+        }
+        return snapshots;
+    }
+}
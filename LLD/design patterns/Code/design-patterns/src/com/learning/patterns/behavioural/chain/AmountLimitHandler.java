@@ -5,9 +5,19 @@ package com.learning.patterns.behavioural.chain;
  */
 public class AmountLimitHandler extends BaseHandler {
 
+    @Override
+    public ValidationRule rule() {
+        return ValidationRule.AMOUNT_LIMIT;
+    }
+
+    @Override
+    public boolean isIndependent() {
+        return true;
+    }
+
     @Override
     public void handle(PaymentRequest request) {
-        if (request.getAmount() > 100000) {
+        if (rejects(request)) {
             System.out.println("❌ Transaction failed: Amount exceeds UPI limit of ₹1,00,000");
             return;
         }
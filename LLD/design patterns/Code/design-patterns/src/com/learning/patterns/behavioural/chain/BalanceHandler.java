@@ -5,9 +5,19 @@ package com.learning.patterns.behavioural.chain;
  */
 public class BalanceHandler extends BaseHandler {
 
+    @Override
+    public ValidationRule rule() {
+        return ValidationRule.BALANCE;
+    }
+
+    @Override
+    public boolean isIndependent() {
+        return true;
+    }
+
     @Override
     public void handle(PaymentRequest request) {
-        if (request.getAmount() > request.getBalance()) {
+        if (rejects(request)) {
             System.out.println("❌ Transaction failed: Insufficient balance");
             return;
         }
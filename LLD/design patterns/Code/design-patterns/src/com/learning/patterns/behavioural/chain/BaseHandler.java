@@ -20,5 +20,18 @@ public abstract class BaseHandler implements PaymentHandler {
             System.out.println("✅ Transaction passed all validations successfully!");
         }
     }
+
+    /*
+     * Batch mode: one call per handler for the whole batch instead of one per request.
+     * A row rejected by any handler stays rejected, which matches the accept/reject
+     * decision of handle(PaymentRequest).
+     */
+    @Override
+    public void handleBatch(PaymentBatch batch, long[] rejected) {
+        batch.markRejected(rule(), rejected);
+        if (nextHandler != null) {
+            nextHandler.handleBatch(batch, rejected);
+        }
+    }
 }
 
@@ -28,6 +28,12 @@ public class ChainOfResponsibilityDemo {
 
         // Start the chain
         amountHandler.handle(request);
+
+        // Same handlers compiled into a flat, allocation-free evaluator for the hot path
+        ValidationPipeline pipeline = ValidationPipeline.compile(amountHandler, balanceHandler, kycHandler, fraudHandler);
+        int result = pipeline.validate(request);
+        System.out.println("Pipeline result code: " + result
+                + (result == ValidationRule.ACCEPTED ? " (accepted)" : " (" + ValidationRule.fromCode(result).getReason() + ")"));
     }
 }
 
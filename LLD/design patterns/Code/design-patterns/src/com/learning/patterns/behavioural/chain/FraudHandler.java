@@ -5,9 +5,19 @@ package com.learning.patterns.behavioural.chain;
  */
 public class FraudHandler extends BaseHandler {
 
+    @Override
+    public ValidationRule rule() {
+        return ValidationRule.FRAUD;
+    }
+
+    @Override
+    public boolean isIndependent() {
+        return true;
+    }
+
     @Override
     public void handle(PaymentRequest request) {
-        if (request.isFraudulent()) {
+        if (rejects(request)) {
             System.out.println("❌ Transaction blocked: Fraud detected");
             return;
         }
@@ -0,0 +1,93 @@
+package com.learning.patterns.behavioural.chain;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * HandlerStats:
+ * Per-handler counters used by AdaptiveHandlerChain.
+ * - LongAdder keeps a striped cell per contending thread, so recording is a
+ *   cheap, mostly uncontended add even when many threads validate at once.
+ * - Every check counts towards evaluated/rejected, but only a sample of checks
+ *   (1 in COST_SAMPLE_RATE requests) is timed: two clock reads cost more than
+ *   most checks.
+ * - decay() folds the current interval into exponentially decayed totals, so
+ *   a change in traffic mix shows up within a few reorder intervals.
+ */
+public final class HandlerStats {
+
+    static final int COST_SAMPLE_RATE = 64;
+    static final double DECAY = 0.5;
+
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timed = new LongAdder();
+    private final LongAdder costNanos = new LongAdder();
+
+    // Totals of earlier intervals, weighted by DECAY per interval; written by the reordering thread only
+    private volatile double pastEvaluated;
+    private volatile double pastRejected;
+    private volatile double pastTimed;
+    private volatile double pastCostNanos;
+
+    void record(boolean rejectedRequest) {
+        evaluated.increment();
+        if (rejectedRequest) {
+            rejected.increment();
+        }
+    }
+
+    void recordCost(long nanos) {
+        timed.increment();
+        costNanos.add(nanos);
+    }
+
+    void decay() {
+        pastEvaluated = pastEvaluated * DECAY + evaluated.sumThenReset();
+        pastRejected = pastRejected * DECAY + rejected.sumThenReset();
+        pastTimed = pastTimed * DECAY + timed.sumThenReset();
+        pastCostNanos = pastCostNanos * DECAY + costNanos.sumThenReset();
+    }
+
+    void reset() {
+        evaluated.reset();
+        rejected.reset();
+        timed.reset();
+        costNanos.reset();
+        pastEvaluated = 0;
+        pastRejected = 0;
+        pastTimed = 0;
+        pastCostNanos = 0;
+    }
+
+    public Snapshot snapshot(PaymentHandler handler) {
+        return new Snapshot(handler.getClass().getSimpleName(), pastEvaluated + evaluated.sum(),
+                pastRejected + rejected.sum(), pastTimed + timed.sum(), pastCostNanos + costNanos.sum());
+    }
+
+    /*
+     * Point-in-time view of one handler's (decayed) counters.
+     * Rates are Laplace-smoothed so a handler that has not been seen yet is neither
+     * treated as "never rejects" nor "always rejects".
+     */
+    public record Snapshot(String handler, double evaluated, double rejected, double timed, double totalCostNanos) {
+
+        public double rejectionRate() {
+            return (rejected + 1.0) / (evaluated + 2.0);
+        }
+
+        public double averageCostNanos() {
+            return timed == 0 ? 0 : totalCostNanos / timed;
+        }
+
+        // Lower is better: cheap handlers that reject often should run first.
+        public double costPerRejection() {
+            return Math.max(averageCostNanos(), 1.0) / rejectionRate();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[evaluated=%.0f, rejected=%.0f, rejectionRate=%.3f, avgCost=%.1fns]",
+                    handler, evaluated, rejected, rejectionRate(), averageCostNanos());
+        }
+    }
+}
@@ -5,9 +5,19 @@ package com.learning.patterns.behavioural.chain;
  */
 public class KYCHandler extends BaseHandler {
 
+    @Override
+    public ValidationRule rule() {
+        return ValidationRule.KYC;
+    }
+
+    @Override
+    public boolean isIndependent() {
+        return true;
+    }
+
     @Override
     public void handle(PaymentRequest request) {
-        if (!request.isKYCVerified()) {
+        if (rejects(request)) {
             System.out.println("❌ Transaction failed: KYC not completed");
             return;
         }
@@ -0,0 +1,122 @@
+package com.learning.patterns.behavioural.chain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * ParallelHandlerGroup:
+ * A single link in the chain that runs several independent checks at the same time.
+ * - Members must declare isIndependent() (e.g. KYCHandler, FraudHandler).
+ * - Each member's rejects() runs as its own task; the group waits for results in
+ *   completion order and stops at the first rejection, cancelling siblings still running.
+ * - If every member passes, the request moves on to the next handler as usual.
+ * - Runs on virtual threads by default, or on a caller-supplied executor.
+ */
+public class ParallelHandlerGroup extends BaseHandler implements AutoCloseable {
+
+    private final PaymentHandler[] members;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    public ParallelHandlerGroup(PaymentHandler... members) {
+        this(Executors.newVirtualThreadPerTaskExecutor(), true, members);
+    }
+
+    public ParallelHandlerGroup(ExecutorService executor, PaymentHandler... members) {
+        this(executor, false, members);
+    }
+
+    private ParallelHandlerGroup(ExecutorService executor, boolean ownsExecutor, PaymentHandler... members) {
+        if (members.length == 0) {
+            throw new IllegalArgumentException("A parallel group needs at least one handler");
+        }
+        for (PaymentHandler member : members) {
+            if (!member.isIndependent()) {
+                throw new IllegalArgumentException(member.getClass().getSimpleName()
+                        + " is not marked independent and cannot run in parallel");
+            }
+        }
+        this.members = members.clone();
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    public PaymentHandler[] getMembers() {
+        return members.clone();
+    }
+
+    // A group has no single rule of its own; ValidationPipeline flattens its members instead.
+    @Override
+    public ValidationRule rule() {
+        return null;
+    }
+
+    @Override
+    public boolean rejects(PaymentRequest request) {
+        return firstRejection(request) != null;
+    }
+
+    @Override
+    public void handle(PaymentRequest request) {
+        ValidationRule rejectedBy = firstRejection(request);
+        if (rejectedBy != null) {
+            System.out.println("❌ Transaction failed: " + rejectedBy.getReason());
+            return;
+        }
+        System.out.println("✅ Parallel checks passed");
+        passToNext(request);
+    }
+
+    @Override
+    public void handleBatch(PaymentBatch batch, long[] rejected) {
+        for (PaymentHandler member : members) {
+            batch.markRejected(member.rule(), rejected);
+        }
+        if (nextHandler != null) {
+            nextHandler.handleBatch(batch, rejected);
+        }
+    }
+
+    /*
+     * Runs all members concurrently and returns the rule of the first member that
+     * rejected (in completion order), or null if all of them passed.
+     */
+    public ValidationRule firstRejection(PaymentRequest request) {
+        CompletionService<PaymentHandler> completion = new ExecutorCompletionService<>(executor);
+        List<Future<PaymentHandler>> futures = new ArrayList<>(members.length);
+        for (PaymentHandler member : members) {
+            futures.add(completion.submit(() -> member.rejects(request) ? member : null));
+        }
+        try {
+            for (int i = 0; i < members.length; i++) {
+                PaymentHandler rejectedBy = completion.take().get();
+                if (rejectedBy != null) {
+                    return rejectedBy.rule();
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parallel checks", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel check failed", e.getCause());
+        } finally {
+            for (Future<PaymentHandler> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.learning.patterns.behavioural.chain;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Latency comparison: serial chain vs ParallelHandlerGroup.
+ * - KYC and fraud checks are wrapped in SimulatedLatencyHandler, which sleeps
+ *   like a remote back-end call before delegating to the real rule.
+ * - Reports p50/p99 end-to-end latency of handle() for each mode.
+ */
+public class ParallelValidationBenchmark {
+
+    private static final int REQUESTS = 500;
+    private static final long BASE_LATENCY_MICROS = 2_000;
+    private static final long JITTER_MICROS = 3_000;
+
+    static void main() {
+        PaymentRequest[] requests = ValidationPipelineBenchmark.randomRequests(REQUESTS, 7);
+
+        PaymentHandler serial = new AmountLimitHandler();
+        PaymentHandler serialBalance = new BalanceHandler();
+        PaymentHandler serialKyc = new SimulatedLatencyHandler(new KYCHandler());
+        PaymentHandler serialFraud = new SimulatedLatencyHandler(new FraudHandler());
+        serial.setNext(serialBalance);
+        serialBalance.setNext(serialKyc);
+        serialKyc.setNext(serialFraud);
+
+        PaymentHandler parallel = new AmountLimitHandler();
+        PaymentHandler parallelBalance = new BalanceHandler();
+        parallel.setNext(parallelBalance);
+
+        PrintStream console = System.out;
+        try (ParallelHandlerGroup group = new ParallelHandlerGroup(
+                new SimulatedLatencyHandler(new KYCHandler()),
+                new SimulatedLatencyHandler(new FraudHandler()))) {
+            parallelBalance.setNext(group);
+
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long[] serialLatencies = run(serial, requests);
+            long[] parallelLatencies = run(parallel, requests);
+            System.setOut(console);
+
+            report("Serial chain   ", serialLatencies);
+            report("Parallel group ", parallelLatencies);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static long[] run(PaymentHandler head, PaymentRequest[] requests) {
+        long[] latencies = new long[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            long start = System.nanoTime();
+            head.handle(requests[i]);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void report(String label, long[] sortedLatencies) {
+        System.out.printf("%s p50 = %6.2f ms, p99 = %6.2f ms%n", label,
+                percentile(sortedLatencies, 0.50) / 1e6, percentile(sortedLatencies, 0.99) / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /*
+     * Wraps a real handler and adds a back-end style delay to its check.
+     * Honours interruption so a cancelled sibling stops sleeping immediately.
+     */
+    static class SimulatedLatencyHandler extends BaseHandler {
+        private final PaymentHandler delegate;
+
+        SimulatedLatencyHandler(PaymentHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ValidationRule rule() {
+            return delegate.rule();
+        }
+
+        @Override
+        public boolean isIndependent() {
+            return delegate.isIndependent();
+        }
+
+        @Override
+        public boolean rejects(PaymentRequest request) {
+            long delay = BASE_LATENCY_MICROS + ThreadLocalRandom.current().nextLong(JITTER_MICROS);
+            try {
+                TimeUnit.MICROSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return delegate.rejects(request);
+        }
+
+        @Override
+        public void handle(PaymentRequest request) {
+            if (rejects(request)) {
+                System.out.println("❌ Transaction failed: " + rule().getReason());
+                return;
+            }
+            passToNext(request);
+        }
+    }
+}
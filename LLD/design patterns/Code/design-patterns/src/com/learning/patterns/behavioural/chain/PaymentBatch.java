@@ -0,0 +1,92 @@
+package com.learning.patterns.behavioural.chain;
+
+/*
+ * PaymentBatch:
+ * Struct-of-arrays view of many payment requests (one column per field).
+ * - Row i is (amount[i], balance[i], kycVerified[i], fraudulent[i]).
+ * - The columns are used as-is, not copied, so a reconciliation job can
+ *   refill the same arrays and re-validate without allocating.
+ * - Results are written into a rejection bitmap: bit i set => row i rejected.
+ */
+public final class PaymentBatch {
+
+    private final double[] amount;
+    private final double[] balance;
+    private final boolean[] kycVerified;
+    private final boolean[] fraudulent;
+    private final int size;
+
+    public PaymentBatch(double[] amount, double[] balance, boolean[] kycVerified, boolean[] fraudulent) {
+        if (balance.length != amount.length || kycVerified.length != amount.length || fraudulent.length != amount.length) {
+            throw new IllegalArgumentException("All batch columns must have the same length");
+        }
+        this.amount = amount;
+        this.balance = balance;
+        this.kycVerified = kycVerified;
+        this.fraudulent = fraudulent;
+        this.size = amount.length;
+    }
+
+    public static PaymentBatch of(PaymentRequest... requests) {
+        int n = requests.length;
+        double[] amount = new double[n];
+        double[] balance = new double[n];
+        boolean[] kycVerified = new boolean[n];
+        boolean[] fraudulent = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            amount[i] = requests[i].getAmount();
+            balance[i] = requests[i].getBalance();
+            kycVerified[i] = requests[i].isKYCVerified();
+            fraudulent[i] = requests[i].isFraudulent();
+        }
+        return new PaymentBatch(amount, balance, kycVerified, fraudulent);
+    }
+
+    public int size() { return size; }
+
+    public long[] newBitmap() {
+        return new long[(size + 63) >>> 6];
+    }
+
+    public static boolean isRejected(long[] bitmap, int index) {
+        return (bitmap[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public static int countRejected(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /*
+     * Applies one rule to every row. The switch is taken once per batch and each
+     * branch is a straight, branch-free loop over a single column or column pair.
+     */
+    void markRejected(ValidationRule rule, long[] bitmap) {
+        switch (rule) {
+            case AMOUNT_LIMIT -> {
+                double limit = ValidationRule.UPI_LIMIT;
+                for (int i = 0; i < size; i++) {
+                    bitmap[i >>> 6] |= (amount[i] > limit ? 1L : 0L) << i;
+                }
+            }
+            case BALANCE -> {
+                for (int i = 0; i < size; i++) {
+                    bitmap[i >>> 6] |= (amount[i] > balance[i] ? 1L : 0L) << i;
+                }
+            }
+            case KYC -> {
+                for (int i = 0; i < size; i++) {
+                    bitmap[i >>> 6] |= (kycVerified[i] ? 0L : 1L) << i;
+                }
+            }
+            case FRAUD -> {
+                for (int i = 0; i < size; i++) {
+                    bitmap[i >>> 6] |= (fraudulent[i] ? 1L : 0L) << i;
+                }
+            }
+        }
+    }
+}
@@ -9,5 +9,21 @@ public interface PaymentHandler {
     void setNext(PaymentHandler next);
 
     void handle(PaymentRequest request);
-}
 
+    // Batch mode: applies this handler's rule to every row, then forwards the batch once.
+    void handleBatch(PaymentBatch batch, long[] rejected);
+
+    // The rule this handler enforces; used by ValidationPipeline to compile the chain.
+    ValidationRule rule();
+
+    // The check itself, without printing or forwarding. Slow back-end checks override this.
+    default boolean rejects(PaymentRequest request) {
+        return rule().rejects(request);
+    }
+
+    // True when the check only reads the request, so it may run in any order
+    // (AdaptiveHandlerChain) or at the same time as others (ParallelHandlerGroup).
+    default boolean isIndependent() {
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.learning.patterns.behavioural.chain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * ValidationPipeline:
+ * A "compiled" form of the handler chain for the hot path.
+ * - The configured handlers are flattened once into an int[] of rule codes
+ *   (members of a ParallelHandlerGroup are inlined in their declared order, and an
+ *   AdaptiveHandlerChain contributes its order at compile time).
+ * - validate() walks that array and evaluates each rule through a static switch,
+ *   so there is no virtual dispatch, no allocation and no console I/O per request.
+ * - The result is ValidationRule.ACCEPTED (0) or the code of the first rule that
+ *   rejected the request, in the same order the chain would have checked them.
+ */
+public final class ValidationPipeline {
+
+    private final int[] ruleCodes;
+
+    private ValidationPipeline(int[] ruleCodes) {
+        this.ruleCodes = ruleCodes;
+    }
+
+    public static ValidationPipeline compile(PaymentHandler... handlers) {
+        List<PaymentHandler> flat = new ArrayList<>();
+        for (PaymentHandler handler : handlers) {
+            if (handler instanceof ParallelHandlerGroup group) {
+                flat.addAll(Arrays.asList(group.getMembers()));
+            } else if (handler instanceof AdaptiveHandlerChain adaptive) {
+                flat.addAll(adaptive.currentOrder());
+            } else {
+                flat.add(handler);
+            }
+        }
+        int[] codes = new int[flat.size()];
+        for (int i = 0; i < codes.length; i++) {
+            ValidationRule rule = flat.get(i).rule();
+            if (rule == null) {
+                throw new IllegalArgumentException("Handler " + flat.get(i).getClass().getSimpleName()
+                        + " does not declare a ValidationRule");
+            }
+            codes[i] = rule.getCode();
+        }
+        return new ValidationPipeline(codes);
+    }
+
+    public int validate(PaymentRequest request) {
+        return validate(request.getAmount(), request.getBalance(),
+                request.isKYCVerified(), request.isFraudulent());
+    }
+
+    public int validate(double amount, double balance, boolean kycVerified, boolean fraudulent) {
+        for (int code : ruleCodes) {
+            if (ValidationRule.rejects(code, amount, balance, kycVerified, fraudulent)) {
+                return code;
+            }
+        }
+        return ValidationRule.ACCEPTED;
+    }
+
+    /*
+     * Columnar mode: runs each compiled rule across the whole batch and returns the
+     * rejection bitmap (see PaymentBatch.isRejected).
+     */
+    public long[] validateBatch(PaymentBatch batch) {
+        long[] rejected = batch.newBitmap();
+        validateBatch(batch, rejected);
+        return rejected;
+    }
+
+    // ORs the result into an existing bitmap; clear it first when reusing it across batches.
+    public void validateBatch(PaymentBatch batch, long[] rejected) {
+        for (int code : ruleCodes) {
+            batch.markRejected(ValidationRule.fromCode(code), rejected);
+        }
+    }
+
+    public ValidationRule[] rules() {
+        ValidationRule[] rules = new ValidationRule[ruleCodes.length];
+        for (int i = 0; i < ruleCodes.length; i++) {
+            rules[i] = ValidationRule.fromCode(ruleCodes[i]);
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,107 @@
+package com.learning.patterns.behavioural.chain;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * Benchmark: linked handler chain vs compiled ValidationPipeline vs columnar batch mode.
+ * - Plain main()-driven harness (warm-up rounds, then measured rounds) since the
+ *   project has no JMH on the classpath; run with a quiet JVM for stable numbers.
+ * - The chain prints on every step, so System.out is redirected to a null stream
+ *   while it runs; the numbers therefore show dispatch + message building cost,
+ *   not terminal speed.
+ */
+public class ValidationPipelineBenchmark {
+
+    private static final int REQUESTS = 100_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    static void main() {
+        PaymentRequest[] requests = randomRequests(REQUESTS, 42);
+
+        PaymentHandler amountHandler = new AmountLimitHandler();
+        PaymentHandler balanceHandler = new BalanceHandler();
+        PaymentHandler kycHandler = new KYCHandler();
+        PaymentHandler fraudHandler = new FraudHandler();
+        amountHandler.setNext(balanceHandler);
+        balanceHandler.setNext(kycHandler);
+        kycHandler.setNext(fraudHandler);
+
+        ValidationPipeline pipeline = ValidationPipeline.compile(amountHandler, balanceHandler, kycHandler, fraudHandler);
+
+        PrintStream console = System.out;
+        long chainNanos;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            chainNanos = measure(() -> {
+                for (PaymentRequest request : requests) {
+                    amountHandler.handle(request);
+                }
+            });
+        } finally {
+            System.setOut(console);
+        }
+
+        long[] sink = new long[1];
+        long pipelineNanos = measure(() -> {
+            long rejected = 0;
+            for (PaymentRequest request : requests) {
+                rejected += pipeline.validate(request);
+            }
+            sink[0] += rejected;
+        });
+
+        PaymentBatch batch = PaymentBatch.of(requests);
+        long[] bitmap = batch.newBitmap();
+        long batchNanos = measure(() -> {
+            Arrays.fill(bitmap, 0L);
+            amountHandler.handleBatch(batch, bitmap);
+            sink[0] += PaymentBatch.countRejected(bitmap);
+        });
+        verifyBatchMatchesPipeline(pipeline, requests, pipeline.validateBatch(batch));
+
+        System.out.printf("Linked chain       : %8.1f ns/request%n", (double) chainNanos / REQUESTS);
+        System.out.printf("ValidationPipeline : %8.1f ns/request%n", (double) pipelineNanos / REQUESTS);
+        System.out.printf("Batch (columnar)   : %8.1f ns/request%n", (double) batchNanos / REQUESTS);
+        System.out.println("(checksum " + sink[0] + ")");
+    }
+
+    private static void verifyBatchMatchesPipeline(ValidationPipeline pipeline, PaymentRequest[] requests, long[] bitmap) {
+        for (int i = 0; i < requests.length; i++) {
+            boolean rejected = pipeline.validate(requests[i]) != ValidationRule.ACCEPTED;
+            if (rejected != PaymentBatch.isRejected(bitmap, i)) {
+                throw new IllegalStateException("Batch decision differs from single-request decision at row " + i);
+            }
+        }
+    }
+
+    // Returns the best round time, which is the least noisy estimate for a CPU-bound loop.
+    private static long measure(Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            round.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    static PaymentRequest[] randomRequests(int count, long seed) {
+        Random random = new Random(seed);
+        PaymentRequest[] requests = new PaymentRequest[count];
+        for (int i = 0; i < count; i++) {
+            requests[i] = new PaymentRequest(
+                    random.nextInt(120_000),
+                    random.nextInt(150_000),
+                    random.nextInt(100) < 95,
+                    random.nextInt(100) < 2);
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,58 @@
+package com.learning.patterns.behavioural.chain;
+
+/*
+ * ValidationRule:
+ * The single source of truth for every check in the UPI validation chain.
+ * - Each handler delegates its condition to one of these rules.
+ * - ValidationPipeline uses the numeric codes to evaluate the same rules
+ *   without going through the handler objects.
+ * - Code 0 is reserved for "accepted".
+ */
+public enum ValidationRule {
+    AMOUNT_LIMIT(1, "Amount exceeds UPI limit of ₹1,00,000"),
+    BALANCE(2, "Insufficient balance"),
+    KYC(3, "KYC not completed"),
+    FRAUD(4, "Fraud detected");
+
+    public static final int ACCEPTED = 0;
+    public static final double UPI_LIMIT = 100000;
+
+    private static final ValidationRule[] BY_CODE = {null, AMOUNT_LIMIT, BALANCE, KYC, FRAUD};
+
+    private final int code;
+    private final String reason;
+
+    ValidationRule(int code, String reason) {
+        this.code = code;
+        this.reason = reason;
+    }
+
+    public int getCode() { return code; }
+    public String getReason() { return reason; }
+
+    public boolean rejects(PaymentRequest request) {
+        return rejects(code, request.getAmount(), request.getBalance(),
+                request.isKYCVerified(), request.isFraudulent());
+    }
+
+    /*
+     * Static, switch-based evaluation so callers on the hot path
+     * never dispatch through an enum constant or a handler.
+     */
+    static boolean rejects(int code, double amount, double balance, boolean kycVerified, boolean fraudulent) {
+        return switch (code) {
+            case 1 -> amount > UPI_LIMIT;
+            case 2 -> amount > balance;
+            case 3 -> !kycVerified;
+            case 4 -> fraudulent;
+            default -> throw new IllegalArgumentException("Unknown rule code: " + code);
+        };
+    }
+
+    public static ValidationRule fromCode(int code) {
+        if (code <= ACCEPTED || code >= BY_CODE.length) {
+            return null;
+        }
+        return BY_CODE[code];
+    }
+}
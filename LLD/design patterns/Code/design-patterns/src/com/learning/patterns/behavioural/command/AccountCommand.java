@@ -0,0 +1,14 @@
+package com.learning.patterns.behavioural.command;
+
+/*
+ * A command that moves a fixed amount into or out of one account.
+ * - This is all the journal and the undo log need to know about a command,
+ *   so they store (account id, opcode, amount) instead of the command object.
+ */
+public interface AccountCommand extends TransactionCommand {
+    BankAccount getAccount();
+    long getAmountMinor();
+
+    // TransactionJournal.DEPOSIT or TransactionJournal.WITHDRAW
+    byte opcode();
+}
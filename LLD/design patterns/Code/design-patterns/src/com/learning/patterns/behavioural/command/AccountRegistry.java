@@ -0,0 +1,65 @@
+package com.learning.patterns.behavioural.command;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * AccountRegistry:
+ * Gives every BankAccount a dense int id.
+ * - The journal, snapshots and undo log store that id instead of the account
+ *   number, which keeps their records small and fixed-size.
+ * - Lookups are lock-free: the id -> account array is copy-on-write and only
+ *   registration (rare) synchronizes.
+ */
+public class AccountRegistry {
+
+    private final Map<String, Integer> idsByNumber = new ConcurrentHashMap<>();
+    private volatile BankAccount[] accounts = new BankAccount[0];
+
+    public synchronized int register(BankAccount account) {
+        Integer existing = idsByNumber.get(account.getAccountNumber());
+        if (existing != null) {
+            if (accounts[existing] != account) {
+                throw new IllegalArgumentException("Account " + account.getAccountNumber() + " is already registered");
+            }
+            return existing;
+        }
+        int id = accounts.length;
+        BankAccount[] grown = Arrays.copyOf(accounts, id + 1);
+        grown[id] = account;
+        accounts = grown;
+        idsByNumber.put(account.getAccountNumber(), id);
+        return id;
+    }
+
+    // Lock-free when the account is already known; registers it otherwise.
+    public int idOrRegister(BankAccount account) {
+        Integer id = idsByNumber.get(account.getAccountNumber());
+        if (id != null && accounts[id] == account) {
+            return id;
+        }
+        return register(account);
+    }
+
+    public BankAccount get(int id) {
+        return accounts[id];
+    }
+
+    public BankAccount find(String accountNumber) {
+        Integer id = idsByNumber.get(accountNumber);
+        return id == null ? null : accounts[id];
+    }
+
+    public int idOf(BankAccount account) {
+        Integer id = idsByNumber.get(account.getAccountNumber());
+        if (id == null || accounts[id] != account) {
+            throw new IllegalArgumentException("Account " + account.getAccountNumber() + " is not registered");
+        }
+        return id;
+    }
+
+    public int size() {
+        return accounts.length;
+    }
+}
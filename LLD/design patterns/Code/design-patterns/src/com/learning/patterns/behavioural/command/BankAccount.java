@@ -2,31 +2,76 @@ package com.learning.patterns.behavioural.command;
 
 import lombok.Getter;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
 /*
  * Receiver: Bank Account
  * - Contains the actual business logic for deposit and withdraw.
+ * - Balance is held in exact minor units (paise) in an AtomicLong:
+ *   credit() is a single atomic add and debit() is a CAS loop that never
+ *   lets the balance go negative, so concurrent commands on the same account
+ *   are linearizable without any lock.
+ * - The lock is only taken by multi-account operations
+ *   (CompositeTransactionCommand), always in account-number order. credit()
+ *   and debit() ignore it, so single commands can observe a composite midway.
+ *   See CompositeTransactionCommand for the exact limit.
  */
-@Getter
 public class BankAccount {
-    private String accountNumber;
-    private double balance;
+    @Getter
+    private final String accountNumber;
+    private final AtomicLong balanceMinor;
+    private final ReentrantLock lock = new ReentrantLock();
 
     public BankAccount(String accountNumber, double balance) {
         this.accountNumber = accountNumber;
-        this.balance = balance;
+        this.balanceMinor = new AtomicLong(Money.toMinorUnits(balance));
+    }
+
+    public double getBalance() {
+        return Money.toRupees(balanceMinor.get());
+    }
+
+    public long getBalanceMinor() {
+        return balanceMinor.get();
     }
 
     public void deposit(double amount) {
-        balance += amount;
-        System.out.println("Deposited " + amount + ", Balance: " + balance);
+        credit(Money.toMinorUnits(amount));
+        System.out.println("Deposited " + amount + ", Balance: " + getBalance());
     }
 
     public void withdraw(double amount) {
-        if (balance >= amount) {
-            balance -= amount;
-            System.out.println("Withdrew " + amount + ", Balance: " + balance);
+        if (debit(Money.toMinorUnits(amount))) {
+            System.out.println("Withdrew " + amount + ", Balance: " + getBalance());
         } else {
             System.out.println("Insufficient funds for withdrawal of " + amount);
         }
     }
+
+    // Silent, lock-free core used by the commands. Returns the new balance.
+    public long credit(long amountMinor) {
+        return balanceMinor.addAndGet(amountMinor);
+    }
+
+    ReentrantLock lock() {
+        return lock;
+    }
+
+    // Recovery only: replays an already-validated effect, without the funds check.
+    void adjust(long deltaMinor) {
+        balanceMinor.addAndGet(deltaMinor);
+    }
+
+    // Returns false (and leaves the balance untouched) when funds are insufficient.
+    public boolean debit(long amountMinor) {
+        long current;
+        do {
+            current = balanceMinor.get();
+            if (current < amountMinor) {
+                return false;
+            }
+        } while (!balanceMinor.compareAndSet(current, current - amountMinor));
+        return true;
+    }
 }
@@ -12,15 +12,19 @@ public class CommandPatternDemo {
         // Deposit 500
         TransactionCommand deposit500 = new DepositCommand(account, 500);
         invoker.executeCommand(deposit500);
+        System.out.println("Deposited 500, Balance: " + account.getBalance());
 
         // Withdraw 200
         TransactionCommand withdraw200 = new WithdrawCommand(account, 200);
         invoker.executeCommand(withdraw200);
+        System.out.println("Withdrew 200, Balance: " + account.getBalance());
 
         // Undo last command (Withdraw 200)
         invoker.undoLastCommand();
+        System.out.println("Balance: " + account.getBalance());
 
         // Undo last command (Deposit 500)
         invoker.undoLastCommand();
+        System.out.println("Balance: " + account.getBalance());
     }
 }
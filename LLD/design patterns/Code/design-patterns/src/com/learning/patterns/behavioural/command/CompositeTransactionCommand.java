@@ -0,0 +1,119 @@
+package com.learning.patterns.behavioural.command;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * Composite Command: several account commands applied as one unit
+ * (e.g. a transfer = withdraw from A + deposit to B).
+ * - execute() locks every involved account in account-number order, so two
+ *   composites touching the same accounts can never deadlock, and composites
+ *   on disjoint accounts never contend.
+ * - All or nothing: if any member cannot be applied (insufficient funds), the
+ *   members already applied are reversed before the locks are released.
+ * - undo() reverses the whole batch the same way. The invoker journals it as
+ *   one atomic batch and undoes it as one unit.
+ * - Limit: plain DepositCommand/WithdrawCommand stay lock-free, so they are
+ *   atomic per account but not isolated from a composite in flight. They can
+ *   see its debits before its credits, and a withdraw can be refused against
+ *   funds the composite is about to roll back. Wrap a single command in a
+ *   one-member composite when it must not interleave.
+ */
+public class CompositeTransactionCommand implements TransactionCommand {
+    private final List<AccountCommand> commands;
+    private boolean applied;
+
+    public CompositeTransactionCommand(List<? extends AccountCommand> commands) {
+        if (commands.isEmpty()) {
+            throw new IllegalArgumentException("A composite command needs at least one member");
+        }
+        this.commands = List.copyOf(commands);
+    }
+
+    public static CompositeTransactionCommand transfer(BankAccount from, BankAccount to, double amount) {
+        return new CompositeTransactionCommand(List.of(new WithdrawCommand(from, amount), new DepositCommand(to, amount)));
+    }
+
+    public List<AccountCommand> getCommands() {
+        return commands;
+    }
+
+    @Override
+    public boolean isApplied() {
+        return applied;
+    }
+
+    @Override
+    public void execute() {
+        if (applied) {
+            return;
+        }
+        int n = commands.size();
+        BankAccount[] accounts = new BankAccount[n];
+        long[] deltas = new long[n];
+        for (int i = 0; i < n; i++) {
+            AccountCommand command = commands.get(i);
+            accounts[i] = command.getAccount();
+            deltas[i] = signedAmount(command.opcode(), command.getAmountMinor());
+        }
+        applied = applyAll(accounts, deltas);
+    }
+
+    @Override
+    public void undo() {
+        if (!applied) {
+            return;
+        }
+        int n = commands.size();
+        BankAccount[] accounts = new BankAccount[n];
+        long[] deltas = new long[n];
+        for (int i = 0; i < n; i++) {
+            AccountCommand command = commands.get(n - 1 - i);
+            accounts[i] = command.getAccount();
+            deltas[i] = -signedAmount(command.opcode(), command.getAmountMinor());
+        }
+        applied = !applyAll(accounts, deltas);
+    }
+
+    static long signedAmount(byte opcode, long amountMinor) {
+        return opcode == TransactionJournal.DEPOSIT ? amountMinor : -amountMinor;
+    }
+
+    /*
+     * Applies deltas[i] to accounts[i] (positive = credit, negative = debit) while
+     * holding every account's lock, taken in account-number order.
+     * Debits go first: if one is refused, only debits need rolling back and a
+     * roll-back credit can never fail, so no balance ever goes negative.
+     * Returns false, with every balance unchanged, if any debit is refused.
+     */
+    static boolean applyAll(BankAccount[] accounts, long[] deltas) {
+        BankAccount[] lockOrder = accounts.clone();
+        Arrays.sort(lockOrder, Comparator.comparing(BankAccount::getAccountNumber));
+        for (BankAccount account : lockOrder) {
+            account.lock().lock();
+        }
+        try {
+            for (int i = 0; i < accounts.length; i++) {
+                if (deltas[i] < 0 && !accounts[i].debit(-deltas[i])) {
+                    for (int j = i - 1; j >= 0; j--) {
+                        if (deltas[j] < 0) {
+                            accounts[j].credit(-deltas[j]); // roll back what was applied
+                        }
+                    }
+                    return false;
+                }
+            }
+            for (int i = 0; i < accounts.length; i++) {
+                if (deltas[i] > 0) {
+                    accounts[i].credit(deltas[i]);
+                }
+            }
+            return true;
+        } finally {
+            for (int i = lockOrder.length - 1; i >= 0; i--) {
+                lockOrder[i].lock().unlock();
+            }
+        }
+    }
+}
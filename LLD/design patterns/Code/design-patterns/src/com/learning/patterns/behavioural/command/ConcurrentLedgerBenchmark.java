@@ -0,0 +1,85 @@
+package com.learning.patterns.behavioural.command;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Contention benchmark for the lock-free BankAccount.
+ * - 1..N threads apply random DepositCommand / WithdrawCommand to a pool of accounts.
+ * - "spread" uses many accounts (low contention), "hot" sends everything to one account.
+ * - After each run the money is reconciled: initial + applied deposits - applied
+ *   withdrawals must equal the sum of balances exactly (no lost updates).
+ */
+public class ConcurrentLedgerBenchmark {
+
+    private static final int OPS_PER_THREAD = 1_000_000;
+    private static final long INITIAL_BALANCE_MINOR = Money.toMinorUnits(10_000);
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%-7s %7s %14s%n", "mode", "threads", "ops/sec");
+        for (int accounts : new int[]{1_024, 1}) {
+            String mode = accounts == 1 ? "hot" : "spread";
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                run(mode, accounts, threads);
+            }
+        }
+    }
+
+    private static void run(String mode, int accountCount, int threads) throws InterruptedException {
+        BankAccount[] accounts = new BankAccount[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = new BankAccount("ACC" + i, Money.toRupees(INITIAL_BALANCE_MINOR));
+        }
+        LongAdder netApplied = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long net = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    BankAccount account = accounts[random.nextInt(accountCount)];
+                    double amount = 1 + random.nextInt(500);
+                    if (random.nextBoolean()) {
+                        DepositCommand deposit = new DepositCommand(account, amount);
+                        deposit.execute();
+                        net += deposit.getAmountMinor();
+                    } else {
+                        WithdrawCommand withdraw = new WithdrawCommand(account, amount);
+                        withdraw.execute();
+                        if (withdraw.isApplied()) {
+                            net -= withdraw.getAmountMinor();
+                        }
+                    }
+                }
+                netApplied.add(net);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long total = 0;
+        for (BankAccount account : accounts) {
+            total += account.getBalanceMinor();
+        }
+        long expected = INITIAL_BALANCE_MINOR * accountCount + netApplied.sum();
+        if (total != expected) {
+            throw new IllegalStateException("Lost update detected: expected " + expected + " but found " + total);
+        }
+        double opsPerSecond = (double) OPS_PER_THREAD * threads / (elapsed / 1e9);
+        System.out.printf("%-7s %7d %,14.0f%n", mode, threads, opsPerSecond);
+    }
+}
@@ -1,24 +1,42 @@
 package com.learning.patterns.behavioural.command;
 
+import lombok.Getter;
+
 /*
  * Concrete Command: Deposit
+ * - undo() throws if the money has already left the account: a deposit that
+ *   cannot be reversed must not look reversed.
  */
-public class DepositCommand implements TransactionCommand {
-    private BankAccount account;
-    private double amount;
+@Getter
+public class DepositCommand implements AccountCommand {
+    private final BankAccount account;
+    private final long amountMinor;
+    private boolean applied;
 
     public DepositCommand(BankAccount account, double amount) {
         this.account = account;
-        this.amount = amount;
+        this.amountMinor = Money.requirePositiveMinorUnits(amount);
+    }
+
+    @Override
+    public byte opcode() {
+        return TransactionJournal.DEPOSIT;
     }
 
     @Override
     public void execute() {
-        account.deposit(amount);
+        account.credit(amountMinor);
+        applied = true;
     }
 
     @Override
     public void undo() {
-        account.withdraw(amount); // undo deposit
+        if (!applied) {
+            return;
+        }
+        if (!account.debit(amountMinor)) { // undo deposit
+            throw new IllegalStateException("Cannot undo deposit: insufficient funds in " + account.getAccountNumber());
+        }
+        applied = false;
     }
 }
@@ -0,0 +1,89 @@
+package com.learning.patterns.behavioural.command;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/*
+ * Durability vs throughput: FSYNC_EACH vs GROUP_COMMIT.
+ * - THREADS writers push journaled deposits/withdrawals through one invoker.
+ * - Each run is then recovered from disk into a fresh registry and the
+ *   replayed balances are compared with the live ones.
+ */
+public class JournalBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int ACCOUNTS = 64;
+
+    public static void main(String[] args) throws Exception {
+        run(TransactionJournal.FlushPolicy.FSYNC_EACH, 100);
+        run(TransactionJournal.FlushPolicy.GROUP_COMMIT, 1_000);
+    }
+
+    private static void run(TransactionJournal.FlushPolicy policy, int opsPerThread) throws Exception {
+        Path directory = Files.createTempDirectory("journal-bench");
+        try {
+            AccountRegistry registry = new AccountRegistry();
+            long elapsed;
+            try (TransactionJournal journal = TransactionJournal.open(directory, policy, registry)) {
+                for (int i = 0; i < ACCOUNTS; i++) {
+                    journal.openAccount("ACC" + i, 10_000);
+                }
+                TransactionInvoker invoker = new TransactionInvoker(journal);
+                CountDownLatch start = new CountDownLatch(1);
+                Thread[] writers = new Thread[THREADS];
+                for (int t = 0; t < THREADS; t++) {
+                    writers[t] = new Thread(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        for (int i = 0; i < opsPerThread; i++) {
+                            BankAccount account = registry.get(random.nextInt(ACCOUNTS));
+                            double amount = 1 + random.nextInt(100);
+                            invoker.executeCommand(random.nextBoolean()
+                                    ? new DepositCommand(account, amount)
+                                    : new WithdrawCommand(account, amount));
+                        }
+                    });
+                    writers[t].start();
+                }
+                long begin = System.nanoTime();
+                start.countDown();
+                for (Thread writer : writers) {
+                    writer.join();
+                }
+                elapsed = System.nanoTime() - begin;
+            }
+
+            AccountRegistry recovered = new AccountRegistry();
+            TransactionJournal.open(directory, policy, recovered).close();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                if (recovered.get(i).getBalanceMinor() != registry.get(i).getBalanceMinor()) {
+                    throw new IllegalStateException("Replay mismatch for " + registry.get(i).getAccountNumber());
+                }
+            }
+
+            long ops = (long) THREADS * opsPerThread;
+            System.out.printf("%-12s %,8d commands  %,10.0f commands/sec  %8.1f us/command%n",
+                    policy, ops, ops / (elapsed / 1e9), elapsed / 1e3 / ops);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.learning.patterns.behavioural.command;
+
+/*
+ * One balance-changing journal record, as kept in a snapshot's undo horizon.
+ */
+public record JournalEntry(long lsn, byte opcode, int accountId, long amountMinor) {
+}
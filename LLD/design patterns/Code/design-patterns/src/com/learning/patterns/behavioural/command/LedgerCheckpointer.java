@@ -0,0 +1,121 @@
+package com.learning.patterns.behavioural.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * LedgerCheckpointer:
+ * Takes consistent snapshots without stopping writers.
+ * - Live balances change before their journal record is written, so reading
+ *   BankAccount objects directly would not match any single LSN. Instead the
+ *   checkpointer keeps a private "shadow" copy of all balances and rolls it
+ *   forward by reading the durable part of the journal. The shadow is therefore
+ *   exactly the state at an LSN, and writers never wait for it.
+ * - After each snapshot, journal segments fully below it and older snapshots
+ *   are deleted, so recovery = latest snapshot + short journal tail.
+ * - The newest `undoHorizon` balance changes that were not undone (an
+ *   UndoHorizon) are kept in the snapshot, so undo history survives
+ *   truncation and restarts.
+ * - The snapshot and the directory entry of its rename are forced before
+ *   anything it replaces is deleted.
+ */
+public class LedgerCheckpointer implements AutoCloseable {
+
+    public static final int DEFAULT_UNDO_HORIZON = 1_024;
+
+    private final TransactionJournal journal;
+    private final int undoHorizon;
+    private final List<String> accountNumbers = new ArrayList<>();
+    private long[] balancesMinor = new long[16];
+    private long lsn;
+
+    private UndoHorizon history;
+
+    private ScheduledExecutorService scheduler;
+
+    public LedgerCheckpointer(TransactionJournal journal) throws IOException {
+        this(journal, DEFAULT_UNDO_HORIZON);
+    }
+
+    public LedgerCheckpointer(TransactionJournal journal, int undoHorizon) throws IOException {
+        this.journal = journal;
+        this.undoHorizon = undoHorizon;
+        this.history = new UndoHorizon(undoHorizon);
+        LedgerSnapshot base = LedgerSnapshot.loadLatest(journal.getDirectory());
+        if (base != null) {
+            accountNumbers.addAll(Arrays.asList(base.getAccountNumbers()));
+            balancesMinor = Arrays.copyOf(base.getBalancesMinor(), Math.max(16, base.accountCount()));
+            lsn = base.getLsn();
+            history = new UndoHorizon(undoHorizon, base.getUndoHorizon());
+        }
+    }
+
+    // Runs checkpoint() in the background at a fixed delay.
+    public synchronized void start(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                System.err.println("Checkpoint failed: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    /*
+     * Rolls the shadow state forward to the journal's durable LSN, writes a
+     * snapshot and truncates what it makes redundant. Returns null if nothing
+     * was logged since the previous snapshot.
+     */
+    public synchronized LedgerSnapshot checkpoint() throws IOException {
+        long upTo = journal.durableLsn();
+        if (upTo <= lsn) {
+            return null;
+        }
+        lsn = TransactionJournal.scan(journal.getDirectory(), lsn, upTo, this::applyToShadow);
+        LedgerSnapshot snapshot = new LedgerSnapshot(lsn, accountNumbers.toArray(new String[0]),
+                Arrays.copyOf(balancesMinor, accountNumbers.size()), history.entries());
+        snapshot.writeTo(journal.getDirectory()); // durable, directory entry included
+        LedgerSnapshot.deleteOlderThan(journal.getDirectory(), lsn);
+        journal.truncateBefore(lsn);
+        return snapshot;
+    }
+
+    private void applyToShadow(long recordLsn, byte opcode, int accountId, long amountMinor, String accountNumber) {
+        if (opcode == TransactionJournal.OPEN) {
+            if (accountId != accountNumbers.size()) {
+                throw new IllegalStateException("Unexpected account id " + accountId + " in journal");
+            }
+            accountNumbers.add(accountNumber);
+            if (accountId >= balancesMinor.length) {
+                balancesMinor = Arrays.copyOf(balancesMinor, balancesMinor.length * 2);
+            }
+            balancesMinor[accountId] = amountMinor;
+            return;
+        }
+        if (!TransactionJournal.isBatchHeader(opcode)) {
+            balancesMinor[accountId] += TransactionJournal.delta(opcode, amountMinor);
+        }
+        history.visit(recordLsn, opcode, accountId, amountMinor);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
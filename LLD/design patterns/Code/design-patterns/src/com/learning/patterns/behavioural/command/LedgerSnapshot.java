@@ -0,0 +1,171 @@
+package com.learning.patterns.behavioural.command;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/*
+ * LedgerSnapshot:
+ * Every account balance exactly as of journal LSN `lsn` (all records below it
+ * applied, none at or above it), plus the newest balance changes before that
+ * point that were not undone (the UndoHorizon), so undo survives a restart.
+ *
+ * File: snapshot-<lsn>.snap
+ *   [magic:4][lsn:8][accounts:4] { [len:2][utf8 number][balanceMinor:8] }*
+ *   [horizon:4] { [lsn:8][opcode:1][accountId:4][amountMinor:8] }* [crc32:4]
+ * Written to a temp file, forced, then atomically renamed, so a crash never
+ * leaves a half-written snapshot under the real name. The directory is forced
+ * after the rename so the new name itself survives a crash.
+ */
+@Getter
+public final class LedgerSnapshot {
+
+    private static final int MAGIC = 0x4C534E50; // "LSNP"
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final int HORIZON_ENTRY_BYTES = 8 + 1 + 4 + 8;
+
+    private final long lsn;
+    private final String[] accountNumbers;
+    private final long[] balancesMinor;
+    private final List<JournalEntry> undoHorizon;
+
+    LedgerSnapshot(long lsn, String[] accountNumbers, long[] balancesMinor, List<JournalEntry> undoHorizon) {
+        this.lsn = lsn;
+        this.accountNumbers = accountNumbers;
+        this.balancesMinor = balancesMinor;
+        this.undoHorizon = List.copyOf(undoHorizon);
+    }
+
+    public int accountCount() {
+        return accountNumbers.length;
+    }
+
+    // Registers every account with its snapshot balance; ids follow the snapshot order.
+    void restoreInto(AccountRegistry registry) {
+        if (registry.size() != 0) {
+            throw new IllegalStateException("Snapshot must be restored into an empty registry");
+        }
+        for (int i = 0; i < accountNumbers.length; i++) {
+            registry.register(new BankAccount(accountNumbers[i], Money.toRupees(balancesMinor[i])));
+        }
+    }
+
+    void writeTo(Path directory) throws IOException {
+        byte[][] encodedNumbers = new byte[accountNumbers.length][];
+        int size = 4 + 8 + 4 + 4 + undoHorizon.size() * HORIZON_ENTRY_BYTES + 4;
+        for (int i = 0; i < accountNumbers.length; i++) {
+            encodedNumbers[i] = accountNumbers[i].getBytes(StandardCharsets.UTF_8);
+            size += 2 + encodedNumbers[i].length + 8;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putLong(lsn).putInt(accountNumbers.length);
+        for (int i = 0; i < accountNumbers.length; i++) {
+            buffer.putShort((short) encodedNumbers[i].length).put(encodedNumbers[i]).putLong(balancesMinor[i]);
+        }
+        buffer.putInt(undoHorizon.size());
+        for (JournalEntry entry : undoHorizon) {
+            buffer.putLong(entry.lsn()).put(entry.opcode()).putInt(entry.accountId()).putLong(entry.amountMinor());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, lsn, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(directory);
+    }
+
+    // fsync of the directory itself, which makes created, renamed and deleted names durable
+    static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    // Newest snapshot that passes its checksum, or null if there is none.
+    static LedgerSnapshot loadLatest(Path directory) throws IOException {
+        List<Path> snapshots = list(directory);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            LedgerSnapshot snapshot = read(snapshots.get(i));
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    static void deleteOlderThan(Path directory, long lsn) throws IOException {
+        for (Path path : list(directory)) {
+            if (lsnOf(path) < lsn) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static LedgerSnapshot read(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < 4 + 8 + 4 + 4 + 4) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - 4);
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4) || buffer.getInt() != MAGIC) {
+            return null;
+        }
+        long lsn = buffer.getLong();
+        int accounts = buffer.getInt();
+        String[] numbers = new String[accounts];
+        long[] balances = new long[accounts];
+        for (int i = 0; i < accounts; i++) {
+            byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(bytes);
+            numbers[i] = new String(bytes, StandardCharsets.UTF_8);
+            balances[i] = buffer.getLong();
+        }
+        int horizonSize = buffer.getInt();
+        List<JournalEntry> horizon = new ArrayList<>(horizonSize);
+        for (int i = 0; i < horizonSize; i++) {
+            horizon.add(new JournalEntry(buffer.getLong(), buffer.get(), buffer.getInt(), buffer.getLong()));
+        }
+        return new LedgerSnapshot(lsn, numbers, balances, horizon);
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted(Comparator.comparingLong(LedgerSnapshot::lsnOf)).toList();
+        }
+    }
+
+    private static long lsnOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
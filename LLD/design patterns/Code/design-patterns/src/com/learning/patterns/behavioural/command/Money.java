@@ -0,0 +1,31 @@
+package com.learning.patterns.behavioural.command;
+
+/*
+ * Money helpers:
+ * Balances are kept as exact long minor units (paise), never as double,
+ * so concurrent additions and subtractions cannot accumulate rounding error.
+ */
+public final class Money {
+
+    public static final int MINOR_UNITS_PER_RUPEE = 100;
+
+    private Money() {
+    }
+
+    public static long toMinorUnits(double amount) {
+        return Math.round(amount * MINOR_UNITS_PER_RUPEE);
+    }
+
+    // Amount of a deposit or withdrawal: must be at least one paisa
+    public static long requirePositiveMinorUnits(double amount) {
+        long minorUnits = toMinorUnits(amount);
+        if (!(amount > 0) || minorUnits <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount);
+        }
+        return minorUnits;
+    }
+
+    public static double toRupees(long minorUnits) {
+        return (double) minorUnits / MINOR_UNITS_PER_RUPEE;
+    }
+}
@@ -0,0 +1,102 @@
+package com.learning.patterns.behavioural.command;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Recovery time: full journal replay vs snapshot + tail.
+ * - For each ledger size, writes that many commands, measures a full replay,
+ *   then checkpoints, writes a fixed-size tail and measures recovery again.
+ * - Pass ledger sizes as arguments to go further (e.g. 100000000); the
+ *   defaults keep the run short.
+ */
+public class RecoveryBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int TAIL_COMMANDS = 10_000;
+    private static final int WRITERS = 64;
+
+    public static void main(String[] args) throws Exception {
+        long[] sizes = args.length == 0 ? new long[]{500_000, 1_000_000, 2_000_000} : parse(args);
+        run(100_000, false); // warm-up
+        System.out.printf("%14s %16s %20s%n", "commands", "full replay ms", "snapshot + tail ms");
+        for (long size : sizes) {
+            run(size, true);
+        }
+    }
+
+    private static void run(long commands, boolean print) throws Exception {
+        Path directory = Files.createTempDirectory("recovery-bench");
+        try {
+            AccountRegistry registry = new AccountRegistry();
+            try (TransactionJournal journal = TransactionJournal.open(directory, TransactionJournal.FlushPolicy.GROUP_COMMIT, registry)) {
+                for (int i = 0; i < ACCOUNTS; i++) {
+                    journal.openAccount("ACC" + i, 1_000_000);
+                }
+                write(journal, registry, commands);
+            }
+            long fullReplay = timeRecovery(directory, null);
+
+            try (TransactionJournal journal = TransactionJournal.open(directory, TransactionJournal.FlushPolicy.GROUP_COMMIT, registry = new AccountRegistry());
+                 LedgerCheckpointer checkpointer = new LedgerCheckpointer(journal)) {
+                checkpointer.checkpoint();
+                write(journal, registry, TAIL_COMMANDS);
+            }
+            long snapshotRecovery = timeRecovery(directory, registry);
+
+            if (print) {
+                System.out.printf("%,14d %16.1f %20.1f%n", commands, fullReplay / 1e6, snapshotRecovery / 1e6);
+            }
+        } finally {
+            JournalBenchmark.deleteRecursively(directory);
+        }
+    }
+
+    // Times a cold open; if `expected` is given, also checks every recovered balance against it.
+    private static long timeRecovery(Path directory, AccountRegistry expected) throws Exception {
+        AccountRegistry recovered = new AccountRegistry();
+        long start = System.nanoTime();
+        TransactionJournal.open(directory, TransactionJournal.FlushPolicy.GROUP_COMMIT, recovered).close();
+        long elapsed = System.nanoTime() - start;
+        if (expected != null) {
+            for (int i = 0; i < expected.size(); i++) {
+                if (recovered.get(i).getBalanceMinor() != expected.get(i).getBalanceMinor()) {
+                    throw new IllegalStateException("Recovered balance differs for " + expected.get(i).getAccountNumber());
+                }
+            }
+        }
+        return elapsed;
+    }
+
+    // Many virtual-thread writers so group commit can batch large numbers of records per fsync.
+    private static void write(TransactionJournal journal, AccountRegistry registry, long commands) throws InterruptedException {
+        AtomicLong remaining = new AtomicLong(commands);
+        Thread[] writers = new Thread[WRITERS];
+        for (int t = 0; t < WRITERS; t++) {
+            writers[t] = Thread.ofVirtual().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (remaining.getAndDecrement() > 0) {
+                    BankAccount account = registry.get(random.nextInt(ACCOUNTS));
+                    TransactionCommand command = random.nextBoolean()
+                            ? new DepositCommand(account, 1 + random.nextInt(100))
+                            : new WithdrawCommand(account, 1 + random.nextInt(100));
+                    command.execute();
+                    journal.record(command);
+                }
+            });
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+    }
+
+    private static long[] parse(String[] args) {
+        long[] sizes = new long[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Long.parseLong(args[i]);
+        }
+        return sizes;
+    }
+}
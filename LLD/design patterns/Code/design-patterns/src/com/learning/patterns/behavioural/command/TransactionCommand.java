@@ -2,9 +2,13 @@ package com.learning.patterns.behavioural.command;
 
 /*
  * Command interface
- * - Declares execute() and undo() methods.
+ * - Declares execute() and undo() methods. undo() throws IllegalStateException
+ *   when the effect can no longer be reversed (e.g. the money was spent).
+ * - isApplied() tells whether the command's effect is currently in the balance
+ *   (a rejected withdrawal, or an undone command, is not applied).
  */
 public interface TransactionCommand {
     void execute();
     void undo();
+    boolean isApplied();
 }
@@ -1,25 +1,194 @@
 package com.learning.patterns.behavioural.command;
 
-import java.util.Stack;
+import java.util.List;
 
 /*
  * Invoker: Executes and manages command history
+ * - History is an UndoLog: a bounded primitive ring buffer of
+ *   (account id, opcode, amount) entries. No command object is kept after
+ *   execution, so memory stays flat in a long-running service.
+ * - Undo works globally (undoLastCommand()) or per account
+ *   (undoLastCommand(account)). A CompositeTransactionCommand is stored as a
+ *   linked group of entries and is always undone as one unit.
+ * - With a TransactionJournal, every executed or undone effect is logged and
+ *   the call returns only once that record is durable. Each undo-log entry
+ *   keeps the LSN of its record, and an undo is logged against that LSN, so
+ *   recovery drops exactly the unit that was undone. The undo log starts
+ *   with the history the journal recovered (snapshot undo horizon + journal
+ *   tail), so undo keeps working across a restart.
+ * - An undo that would overdraw an account (the deposit was already spent)
+ *   throws IllegalStateException, like DepositCommand.undo(). Nothing is
+ *   changed and the entry stays newest: add funds and retry, or undo other
+ *   accounts with undoLastCommand(account).
  */
 public class TransactionInvoker {
-    private Stack<TransactionCommand> history = new Stack<>();
+    public static final int DEFAULT_UNDO_DEPTH = 65_536;
+
+    private final TransactionJournal journal;
+    private final AccountRegistry registry;
+    private final UndoLog undoLog;
+
+    public TransactionInvoker() {
+        this(null, new UndoLog(DEFAULT_UNDO_DEPTH));
+    }
+
+    public TransactionInvoker(TransactionJournal journal) {
+        this(journal, new UndoLog(DEFAULT_UNDO_DEPTH));
+    }
+
+    public TransactionInvoker(TransactionJournal journal, UndoLog undoLog) {
+        this.journal = journal;
+        this.registry = journal != null ? journal.getRegistry() : new AccountRegistry();
+        this.undoLog = undoLog;
+        if (journal != null) {
+            restore(journal.recoveredUndoHistory());
+        }
+    }
+
+    /*
+     * Re-appends recovered history, each unit as one group. A unit is a run of
+     * LINKED entries at consecutive LSNs; a LINKED entry that does not directly
+     * follow the previous entry's LSN (its unit start was cancelled by an old
+     * journal's content-matched undo) is restored on its own rather than being
+     * glued onto an unrelated command.
+     */
+    private void restore(List<JournalEntry> history) {
+        int start = 0;
+        while (start < history.size()) {
+            int end = start + 1;
+            while (end < history.size() && (history.get(end).opcode() & UndoLog.LINKED) != 0
+                    && history.get(end).lsn() == history.get(end - 1).lsn() + 1) {
+                end++;
+            }
+            int n = end - start;
+            int[] accountIds = new int[n];
+            byte[] opcodes = new byte[n];
+            long[] amountsMinor = new long[n];
+            for (int i = 0; i < n; i++) {
+                JournalEntry entry = history.get(start + i);
+                accountIds[i] = entry.accountId();
+                opcodes[i] = (byte) (entry.opcode() & ~UndoLog.LINKED);
+                amountsMinor[i] = entry.amountMinor();
+            }
+            undoLog.appendGroup(accountIds, opcodes, amountsMinor, history.get(start).lsn());
+            start = end;
+        }
+    }
 
     public void executeCommand(TransactionCommand command) {
+        List<AccountCommand> effects = switch (command) {
+            case CompositeTransactionCommand composite -> composite.getCommands();
+            case AccountCommand accountCommand -> List.of(accountCommand);
+            default -> throw new IllegalArgumentException("Unsupported command: " + command.getClass().getSimpleName());
+        };
         command.execute();
-        history.push(command);
+        long lsn = journal != null ? journal.record(command) : -1;
+        if (command.isApplied()) {
+            // A composite's members are journaled right after its BATCH header
+            remember(effects, lsn >= 0 && command instanceof CompositeTransactionCommand ? lsn + 1 : lsn);
+        }
+    }
+
+    // firstLsn: journal LSN of the first effect, the rest follow it; -1 if not journaled
+    private void remember(List<AccountCommand> effects, long firstLsn) {
+        if (effects.size() == 1) {
+            AccountCommand effect = effects.get(0);
+            undoLog.append(registry.idOrRegister(effect.getAccount()), effect.opcode(), effect.getAmountMinor(), firstLsn);
+            return;
+        }
+        int n = effects.size();
+        int[] accountIds = new int[n];
+        byte[] opcodes = new byte[n];
+        long[] amountsMinor = new long[n];
+        for (int i = 0; i < n; i++) {
+            AccountCommand effect = effects.get(i);
+            accountIds[i] = registry.idOrRegister(effect.getAccount());
+            opcodes[i] = effect.opcode();
+            amountsMinor[i] = effect.getAmountMinor();
+        }
+        if (undoLog.appendGroup(accountIds, opcodes, amountsMinor, firstLsn) < 0) {
+            System.out.println("Transaction of " + n + " commands exceeds the undo depth; earlier history cleared");
+        }
     }
 
     public void undoLastCommand() {
-        if (!history.isEmpty()) {
-            TransactionCommand lastCommand = history.pop();
-            lastCommand.undo();
-            System.out.println("Undo last command");
+        synchronized (undoLog) {
+            long seq = undoLog.latest();
+            if (seq < 0) {
+                System.out.println("No commands to undo");
+                return;
+            }
+            undo(seq);
+        }
+    }
+
+    public void undoLastCommand(BankAccount account) {
+        synchronized (undoLog) {
+            long seq = undoLog.latestFor(registry.idOrRegister(account));
+            if (seq < 0) {
+                System.out.println("No commands to undo for account " + account.getAccountNumber());
+                return;
+            }
+            undo(seq);
+        }
+    }
+
+    private void undo(long seq) {
+        long first = undoLog.groupStart(seq);
+        long last = undoLog.groupEnd(seq);
+        if (first == last) {
+            undoSingle(seq);
         } else {
-            System.out.println("No commands to undo");
+            undoGroup(first, last);
+        }
+    }
+
+    private void undoSingle(long seq) {
+        int accountId = undoLog.accountId(seq);
+        byte opcode = undoLog.opcode(seq);
+        long amountMinor = undoLog.amountMinor(seq);
+        BankAccount account = registry.get(accountId);
+        if (opcode == TransactionJournal.DEPOSIT) {
+            if (!account.debit(amountMinor)) { // undo deposit
+                throw new IllegalStateException("Cannot undo deposit: insufficient funds in " + account.getAccountNumber());
+            }
+        } else {
+            account.credit(amountMinor); // undo withdraw
+        }
+        long lsn = undoLog.lsn(seq);
+        undoLog.remove(seq);
+        if (journal != null) {
+            journal.recordUndo(opcode, accountId, amountMinor, lsn);
+        }
+        System.out.println("Undo last command");
+    }
+
+    // Reverses every entry of a composite, newest first, as one all-or-nothing step.
+    private void undoGroup(long first, long last) {
+        int n = (int) (last - first + 1);
+        byte[] opcodes = new byte[n];
+        int[] accountIds = new int[n];
+        long[] amountsMinor = new long[n];
+        BankAccount[] accounts = new BankAccount[n];
+        long[] deltas = new long[n];
+        for (int i = 0; i < n; i++) {
+            long seq = last - i;
+            opcodes[i] = undoLog.opcode(seq);
+            accountIds[i] = undoLog.accountId(seq);
+            amountsMinor[i] = undoLog.amountMinor(seq);
+            accounts[i] = registry.get(accountIds[i]);
+            deltas[i] = -CompositeTransactionCommand.signedAmount(opcodes[i], amountsMinor[i]);
+        }
+        if (!CompositeTransactionCommand.applyAll(accounts, deltas)) {
+            throw new IllegalStateException("Cannot undo transaction: insufficient funds to reverse it");
+        }
+        long firstLsn = undoLog.lsn(first);
+        for (long seq = first; seq <= last; seq++) {
+            undoLog.remove(seq);
+        }
+        if (journal != null) {
+            journal.recordUndoBatch(firstLsn, opcodes, accountIds, amountsMinor);
         }
+        System.out.println("Undo last command");
     }
 }
@@ -0,0 +1,669 @@
+package com.learning.patterns.behavioural.command;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/*
+ * TransactionJournal:
+ * Durable, append-only log of executed and undone commands.
+ *
+ * Record format (big-endian), one per effect that actually changed a balance:
+ *   [opcode:1][accountId:4][amountMinor:8][crc32:4]                         = 17 bytes
+ *   OPEN adds the account number: [...amountMinor:8][len:2][utf8 bytes][crc32:4]
+ *   BATCH (accountId = n) is followed by n member records that replay all or nothing
+ *   UNDO_BATCH (accountId = n, amountMinor = first LSN of the unit it reverses)
+ *   is a BATCH of n UNDO_DEPOSIT/UNDO_WITHDRAW records; every undo is logged
+ *   this way, so recovery knows exactly which entries left the undo history
+ * Every record has an implicit log sequence number (LSN); segment files are
+ * named journal-<first LSN>.log and a new one is started once the current
+ * segment exceeds segmentBytes.
+ *
+ * Flush policies:
+ * - FSYNC_EACH   : the appending thread writes and forces its own record.
+ * - GROUP_COMMIT : appenders copy records into a shared buffer and wait; one
+ *   flusher thread swaps the buffer, writes it with a single FileChannel write
+ *   and one force(), then releases every waiter in that batch.
+ * Either way record() returns only when the record is on disk, so a command is
+ * acknowledged only once it is durable. A new segment's directory entry is
+ * forced before anything is written to it.
+ *
+ * Recovery: open() restores the latest LedgerSnapshot, then maps the remaining
+ * segments read-only, replays records into the AccountRegistry and stops a
+ * segment at the first torn or corrupt record. The newest segment is then
+ * truncated to its last valid record and appended to, so a crash that left it
+ * empty or torn does not block the next write.
+ */
+public class TransactionJournal implements AutoCloseable {
+
+    public enum FlushPolicy { FSYNC_EACH, GROUP_COMMIT }
+
+    static final byte OPEN = 1;
+    static final byte DEPOSIT = 2;
+    static final byte WITHDRAW = 3;
+    static final byte UNDO_DEPOSIT = 4;
+    static final byte UNDO_WITHDRAW = 5;
+    static final byte BATCH = 6;
+    static final byte UNDO_BATCH = 7;
+
+    static final int FIXED_RECORD_BYTES = 1 + 4 + 8 + 4;
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final FlushPolicy policy;
+    private final long segmentBytes;
+    private final AccountRegistry registry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+
+    // Guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_BYTES);
+    private long pendingFirstLsn;
+    private long nextLsn;
+    private long durableLsn;
+    private IOException failure;
+    private boolean closed;
+
+    // Owned by whoever is writing (the flusher, or the lock holder under FSYNC_EACH)
+    private ByteBuffer flushing = ByteBuffer.allocate(BUFFER_BYTES);
+    private FileChannel segment;
+
+    private final List<JournalEntry> recoveredUndoHistory;
+
+    private TransactionJournal(Path directory, FlushPolicy policy, long segmentBytes, AccountRegistry registry,
+                               long nextLsn, FileChannel tail, List<JournalEntry> recoveredUndoHistory) {
+        this.directory = directory;
+        this.policy = policy;
+        this.segmentBytes = segmentBytes;
+        this.registry = registry;
+        this.nextLsn = nextLsn;
+        this.segment = tail;
+        this.recoveredUndoHistory = recoveredUndoHistory;
+        this.durableLsn = nextLsn;
+        if (policy == FlushPolicy.GROUP_COMMIT) {
+            flusher = new Thread(this::flushLoop, "journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    public static TransactionJournal open(Path directory, FlushPolicy policy, AccountRegistry registry) throws IOException {
+        return open(directory, policy, DEFAULT_SEGMENT_BYTES, registry);
+    }
+
+    /*
+     * Restores the latest LedgerSnapshot (if any), replays only the journal tail
+     * after it into the registry, then returns a journal positioned after the
+     * last valid record. The snapshot's undo horizon is rolled forward over the
+     * same tail; TransactionInvoker picks it up via recoveredUndoHistory().
+     */
+    public static TransactionJournal open(Path directory, FlushPolicy policy, long segmentBytes,
+                                          AccountRegistry registry) throws IOException {
+        Files.createDirectories(directory);
+        LedgerSnapshot snapshot = LedgerSnapshot.loadLatest(directory);
+        long fromLsn = 0;
+        UndoHorizon history = new UndoHorizon(LedgerCheckpointer.DEFAULT_UNDO_HORIZON);
+        if (snapshot != null) {
+            snapshot.restoreInto(registry);
+            fromLsn = snapshot.getLsn();
+            history = new UndoHorizon(Math.max(LedgerCheckpointer.DEFAULT_UNDO_HORIZON, snapshot.getUndoHorizon().size()),
+                    snapshot.getUndoHorizon());
+        }
+        long nextLsn = replay(directory, registry, fromLsn, history);
+        return new TransactionJournal(directory, policy, segmentBytes, registry, nextLsn,
+                reopenTail(directory, nextLsn), history.entries());
+    }
+
+    /*
+     * Opens the newest segment for appending if its last valid record ends at
+     * nextLsn, cutting off any torn or corrupt bytes after it. Otherwise
+     * (no segments, or the snapshot is ahead of the journal) returns null and
+     * the first write starts a new segment named after nextLsn.
+     */
+    private static FileChannel reopenTail(Path directory, long nextLsn) throws IOException {
+        List<Path> segments = listSegments(directory);
+        if (segments.isEmpty()) {
+            return null;
+        }
+        Path tail = segments.get(segments.size() - 1);
+        long[] end = validEnd(tail, firstLsnOf(tail));
+        if (end[0] != nextLsn) {
+            return null;
+        }
+        FileChannel channel = FileChannel.open(tail, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(end[1]);
+            channel.position(end[1]);
+            channel.force(true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    public AccountRegistry getRegistry() {
+        return registry;
+    }
+
+    // Creates, registers and durably logs a new account.
+    public BankAccount openAccount(String accountNumber, double openingBalance) {
+        BankAccount account = new BankAccount(accountNumber, openingBalance);
+        int id = registry.register(account);
+        append(OPEN, id, account.getBalanceMinor(), accountNumber.getBytes(StandardCharsets.UTF_8));
+        return account;
+    }
+
+    // Logs the effect of an executed command. Returns its LSN, or -1 if it changed nothing.
+    public long record(TransactionCommand command) {
+        if (!command.isApplied()) {
+            return -1;
+        }
+        if (command instanceof CompositeTransactionCommand composite) {
+            List<AccountCommand> members = composite.getCommands();
+            byte[] opcodes = new byte[members.size()];
+            int[] accountIds = new int[members.size()];
+            long[] amountsMinor = new long[members.size()];
+            for (int i = 0; i < opcodes.length; i++) {
+                opcodes[i] = members.get(i).opcode();
+                accountIds[i] = registry.idOf(members.get(i).getAccount());
+                amountsMinor[i] = members.get(i).getAmountMinor();
+            }
+            return appendBatch(BATCH, 0, opcodes, accountIds, amountsMinor);
+        }
+        AccountCommand accountCommand = asAccountCommand(command);
+        return append(accountCommand.opcode(), registry.idOf(accountCommand.getAccount()), accountCommand.getAmountMinor(), null);
+    }
+
+    // Logs the reversal of a command that has just been undone; lsn is what record() returned for it.
+    public long recordUndo(TransactionCommand command, long lsn) {
+        AccountCommand accountCommand = asAccountCommand(command);
+        return recordUndo(accountCommand.opcode(), registry.idOf(accountCommand.getAccount()), accountCommand.getAmountMinor(), lsn);
+    }
+
+    // Logs the reversal of the undo-log entry journaled at lsn (opcode is DEPOSIT or WITHDRAW).
+    long recordUndo(byte opcode, int accountId, long amountMinor, long lsn) {
+        return recordUndoBatch(lsn, new byte[]{opcode}, new int[]{accountId}, new long[]{amountMinor});
+    }
+
+    // Logs the reversal of a whole unit, whose members were journaled from firstLsn on, as one atomic batch.
+    long recordUndoBatch(long firstLsn, byte[] opcodes, int[] accountIds, long[] amountsMinor) {
+        byte[] undoOpcodes = new byte[opcodes.length];
+        for (int i = 0; i < opcodes.length; i++) {
+            undoOpcodes[i] = opcodes[i] == DEPOSIT ? UNDO_DEPOSIT : UNDO_WITHDRAW;
+        }
+        return appendBatch(UNDO_BATCH, firstLsn, undoOpcodes, accountIds, amountsMinor);
+    }
+
+    private static AccountCommand asAccountCommand(TransactionCommand command) {
+        if (command instanceof AccountCommand accountCommand) {
+            return accountCommand;
+        }
+        throw new IllegalArgumentException("Unsupported command: " + command.getClass().getSimpleName());
+    }
+
+    // LSN the next record will get; every record below it has been acknowledged or is in flight.
+    public long nextLsn() {
+        lock.lock();
+        try {
+            return nextLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Every record below this LSN is on disk and safe to read back (e.g. by LedgerCheckpointer).
+    public long durableLsn() {
+        lock.lock();
+        try {
+            return durableLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Balance changes not yet undone when the journal was opened, oldest first
+    List<JournalEntry> recoveredUndoHistory() {
+        return recoveredUndoHistory;
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    private long append(byte opcode, int accountId, long amountMinor, byte[] accountNumber) {
+        int size = FIXED_RECORD_BYTES + (accountNumber == null ? 0 : 2 + accountNumber.length);
+        lock.lock();
+        try {
+            reserve(size);
+            long lsn = encodeNext(opcode, accountId, amountMinor, accountNumber);
+            commit(lsn);
+            return lsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Appends a BATCH or UNDO_BATCH header (accountId = member count) followed
+     * by the members, contiguously and in one buffer, so they always land in
+     * the same segment and become durable together. Returns the header's LSN.
+     */
+    private long appendBatch(byte header, long headerAmount, byte[] opcodes, int[] accountIds, long[] amountsMinor) {
+        int size = FIXED_RECORD_BYTES * (opcodes.length + 1);
+        if (size > BUFFER_BYTES) {
+            throw new IllegalArgumentException("Batch of " + opcodes.length + " records is too large for one journal write");
+        }
+        lock.lock();
+        try {
+            reserve(size);
+            long headerLsn = encodeNext(header, opcodes.length, headerAmount, null);
+            long lastLsn = headerLsn;
+            for (int i = 0; i < opcodes.length; i++) {
+                lastLsn = encodeNext(opcodes[i], accountIds[i], amountsMinor[i], null);
+            }
+            commit(lastLsn);
+            return headerLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits (holding the lock between waits) until the pending buffer has room for size bytes.
+    private void reserve(int size) {
+        checkUsable();
+        while (pending.remaining() < size) {
+            dataAvailable.signal();
+            durable.awaitUninterruptibly();
+            checkUsable();
+        }
+    }
+
+    private long encodeNext(byte opcode, int accountId, long amountMinor, byte[] accountNumber) {
+        long lsn = nextLsn++;
+        if (pending.position() == 0) {
+            pendingFirstLsn = lsn;
+        }
+        encode(pending, opcode, accountId, amountMinor, accountNumber);
+        return lsn;
+    }
+
+    // Returns once every record up to and including lastLsn is on disk.
+    private void commit(long lastLsn) {
+        if (policy == FlushPolicy.FSYNC_EACH) {
+            ByteBuffer batch = pending;
+            pending = flushing;
+            flushing = batch;
+            try {
+                write(batch, pendingFirstLsn);
+            } catch (IOException e) {
+                failure = e;
+                throw new UncheckedIOException(e);
+            }
+            durableLsn = nextLsn;
+        } else {
+            dataAvailable.signal();
+            while (durableLsn <= lastLsn) {
+                checkFailure();
+                durable.awaitUninterruptibly();
+            }
+        }
+    }
+
+    private void encode(ByteBuffer buffer, byte opcode, int accountId, long amountMinor, byte[] accountNumber) {
+        int start = buffer.position();
+        buffer.put(opcode).putInt(accountId).putLong(amountMinor);
+        if (accountNumber != null) {
+            buffer.putShort((short) accountNumber.length).put(accountNumber);
+        }
+        crc.reset();
+        crc.update(buffer.array(), start, buffer.position() - start);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long firstLsn;
+            long endLsn;
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) {
+                    dataAvailable.awaitUninterruptibly();
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = flushing;
+                flushing = batch;
+                firstLsn = pendingFirstLsn;
+                endLsn = nextLsn;
+                durable.signalAll(); // appenders waiting for buffer space can continue
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                write(batch, firstLsn);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableLsn = endLsn;
+                }
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+
+    private void write(ByteBuffer batch, long firstLsn) throws IOException {
+        batch.flip();
+        if (segment == null || segment.size() >= segmentBytes) {
+            roll(firstLsn);
+        }
+        while (batch.hasRemaining()) {
+            segment.write(batch);
+        }
+        segment.force(false);
+        batch.clear();
+    }
+
+    /*
+     * Starts a new segment. The directory is forced before any record is
+     * written to it: force() on the file alone does not make its name durable,
+     * and losing the name on power loss would lose acknowledged records.
+     */
+    private void roll(long firstLsn) throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+        segment = FileChannel.open(segmentPath(directory, firstLsn),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        LedgerSnapshot.forceDirectory(directory);
+    }
+
+    private void checkUsable() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            dataAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (segment != null) {
+            segment.close();
+        }
+    }
+
+    // ---------------------------------------------------------------- recovery
+
+    /*
+     * Callback for scan(): one call per valid record, in LSN order. A BATCH or
+     * UNDO_BATCH header is visited too (accountId = member count) before its members.
+     * accountNumber is only set for OPEN records.
+     */
+    interface RecordVisitor {
+        void visit(long lsn, byte opcode, int accountId, long amountMinor, String accountNumber);
+    }
+
+    /*
+     * Replays records with LSN >= fromLsn into the registry and the undo
+     * history, and returns the LSN after the last valid record.
+     */
+    static long replay(Path directory, AccountRegistry registry, long fromLsn, UndoHorizon history) throws IOException {
+        return scan(directory, fromLsn, Long.MAX_VALUE, (lsn, opcode, accountId, amountMinor, accountNumber) -> {
+            apply(registry, opcode, accountId, amountMinor, accountNumber);
+            history.visit(lsn, opcode, accountId, amountMinor);
+        });
+    }
+
+    /*
+     * Visits every valid record with fromLsn <= LSN < toLsn and returns the LSN after
+     * the last record visited (or fromLsn if there was none).
+     */
+    static long scan(Path directory, long fromLsn, long toLsn, RecordVisitor visitor) throws IOException {
+        List<Path> segments = listSegments(directory);
+        long nextLsn = fromLsn;
+        for (int i = 0; i < segments.size(); i++) {
+            long firstLsn = firstLsnOf(segments.get(i));
+            if (firstLsn >= toLsn) {
+                break;
+            }
+            if (i + 1 < segments.size() && firstLsnOf(segments.get(i + 1)) <= fromLsn) {
+                continue; // whole segment is older than the requested start
+            }
+            nextLsn = Math.max(nextLsn, scanSegment(segments.get(i), firstLsn, fromLsn, toLsn, visitor));
+        }
+        return nextLsn;
+    }
+
+    private static long scanSegment(Path path, long firstLsn, long fromLsn, long toLsn, RecordVisitor visitor) throws IOException {
+        long lsn = firstLsn;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            RecordReader reader = new RecordReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            while (lsn < toLsn && reader.next()) {
+                if (!isBatchHeader(reader.opcode)) {
+                    if (lsn >= fromLsn) {
+                        visitor.visit(lsn, reader.opcode, reader.accountId, reader.amountMinor, reader.accountNumber);
+                    }
+                    lsn++;
+                    continue;
+                }
+                // Only replay a batch if every member made it to disk
+                byte header = reader.opcode;
+                long headerAmount = reader.amountMinor;
+                int members = reader.accountId;
+                int membersStart = reader.buffer.position();
+                if (lsn + members >= toLsn || !reader.skip(members)) {
+                    break;
+                }
+                reader.buffer.position(membersStart);
+                if (lsn >= fromLsn) {
+                    visitor.visit(lsn, header, members, headerAmount, null);
+                }
+                lsn++;
+                for (int i = 0; i < members; i++) {
+                    reader.next();
+                    if (lsn >= fromLsn) {
+                        visitor.visit(lsn, reader.opcode, reader.accountId, reader.amountMinor, null);
+                    }
+                    lsn++;
+                }
+            }
+        }
+        return lsn;
+    }
+
+    // {LSN after the last complete record, byte offset after it} of one segment
+    private static long[] validEnd(Path path, long firstLsn) throws IOException {
+        long lsn = firstLsn;
+        int validBytes = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            RecordReader reader = new RecordReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            while (reader.next()) {
+                if (isBatchHeader(reader.opcode)) {
+                    int members = reader.accountId;
+                    if (!reader.skip(members)) {
+                        break;
+                    }
+                    lsn += members;
+                }
+                lsn++;
+                validBytes = reader.buffer.position();
+            }
+        }
+        return new long[]{lsn, validBytes};
+    }
+
+    /*
+     * Decodes one record at a time from a mapped segment. next() returns false
+     * at a short or corrupt record, i.e. the torn tail of a crashed write.
+     */
+    private static final class RecordReader {
+        private final ByteBuffer buffer;
+        private final CRC32 checksum = new CRC32();
+        private byte opcode;
+        private int accountId;
+        private long amountMinor;
+        private String accountNumber;
+
+        RecordReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        boolean next() {
+            if (buffer.remaining() < FIXED_RECORD_BYTES) {
+                return false;
+            }
+            int start = buffer.position();
+            opcode = buffer.get();
+            accountId = buffer.getInt();
+            amountMinor = buffer.getLong();
+            accountNumber = null;
+            if (opcode == OPEN) {
+                if (buffer.remaining() < 2) {
+                    return false;
+                }
+                int length = Short.toUnsignedInt(buffer.getShort());
+                if (buffer.remaining() < length + 4) {
+                    return false;
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                accountNumber = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int end = buffer.position();
+            int storedCrc = buffer.getInt();
+            checksum.reset();
+            checksum.update(buffer.duplicate().position(start).limit(end));
+            return (int) checksum.getValue() == storedCrc;
+        }
+
+        boolean skip(int records) {
+            for (int i = 0; i < records; i++) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static void apply(AccountRegistry registry, byte opcode, int accountId, long amountMinor, String accountNumber) {
+        switch (opcode) {
+            case OPEN -> {
+                int id = registry.register(new BankAccount(accountNumber, Money.toRupees(amountMinor)));
+                if (id != accountId) {
+                    throw new IllegalStateException("Journal account id " + accountId + " replayed as " + id);
+                }
+            }
+            case BATCH, UNDO_BATCH -> { } // its members follow
+            default -> registry.get(accountId).adjust(delta(opcode, amountMinor));
+        }
+    }
+
+    static boolean isBatchHeader(byte opcode) {
+        return opcode == BATCH || opcode == UNDO_BATCH;
+    }
+
+    // Balance change of a non-OPEN record: positive for credits, negative for debits.
+    static long delta(byte opcode, long amountMinor) {
+        return switch (opcode) {
+            case DEPOSIT, UNDO_WITHDRAW -> amountMinor;
+            case WITHDRAW, UNDO_DEPOSIT -> -amountMinor;
+            default -> throw new IllegalStateException("Opcode " + opcode + " has no balance delta");
+        };
+    }
+
+    /*
+     * Deletes segments whose records are all below the given LSN. The segment
+     * being written is always the newest one and is never deleted.
+     */
+    void truncateBefore(long lsn) throws IOException {
+        List<Path> segments = listSegments(directory);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstLsnOf(segments.get(i + 1)) <= lsn) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(TransactionJournal::isSegment).sorted().forEach(segments::add);
+        }
+        return segments;
+    }
+
+    static Path segmentPath(Path directory, long firstLsn) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+    }
+
+    static long firstLsnOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+}
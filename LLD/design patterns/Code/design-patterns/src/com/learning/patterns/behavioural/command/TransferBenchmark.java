@@ -0,0 +1,75 @@
+package com.learning.patterns.behavioural.command;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Settlement-style transfer throughput with CompositeTransactionCommand.
+ * - "disjoint": each worker moves money only between its own accounts, so
+ *   composites never share a lock and throughput should grow with cores.
+ * - "shared": every worker draws from the same few accounts (worst case).
+ * - Each worker has its own invoker, as a settlement worker would, and the
+ *   total amount of money is checked after every run.
+ */
+public class TransferBenchmark {
+
+    private static final int TRANSFERS_PER_THREAD = 500_000;
+    private static final int ACCOUNTS_PER_THREAD = 64;
+    private static final int SHARED_ACCOUNTS = 8;
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%-9s %7s %16s%n", "mode", "threads", "transfers/sec");
+        for (boolean disjoint : new boolean[]{true, false}) {
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                run(disjoint, threads);
+            }
+        }
+    }
+
+    private static void run(boolean disjoint, int threads) throws InterruptedException {
+        int accountCount = disjoint ? threads * ACCOUNTS_PER_THREAD : SHARED_ACCOUNTS;
+        BankAccount[] accounts = new BankAccount[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = new BankAccount(String.format("ACC%06d", i), 1_000_000);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int base = disjoint ? t * ACCOUNTS_PER_THREAD : 0;
+            int span = disjoint ? ACCOUNTS_PER_THREAD : SHARED_ACCOUNTS;
+            workers[t] = new Thread(() -> {
+                TransactionInvoker invoker = new TransactionInvoker(null, new UndoLog(1_024));
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    BankAccount from = accounts[base + random.nextInt(span)];
+                    BankAccount to = accounts[base + random.nextInt(span)];
+                    invoker.executeCommand(CompositeTransactionCommand.transfer(from, to, 1 + random.nextInt(1_000)));
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long total = 0;
+        for (BankAccount account : accounts) {
+            total += account.getBalanceMinor();
+        }
+        if (total != Money.toMinorUnits(1_000_000) * accountCount) {
+            throw new IllegalStateException("Money was created or destroyed: " + total);
+        }
+        System.out.printf("%-9s %7d %,16.0f%n", disjoint ? "disjoint" : "shared", threads,
+                (double) TRANSFERS_PER_THREAD * threads / (elapsed / 1e9));
+    }
+}
@@ -0,0 +1,58 @@
+package com.learning.patterns.behavioural.command;
+
+import java.util.Stack;
+
+/*
+ * Heap cost of undo history: Stack<TransactionCommand> vs UndoLog.
+ * - Retains one million executed commands in each structure and reports the
+ *   retained heap after a full GC. Run with a fixed heap (e.g. -Xmx1g) and
+ *   -XX:+UseSerialGC for the steadiest numbers.
+ */
+public class UndoHistoryMemoryBenchmark {
+
+    private static final int COMMANDS = 1_000_000;
+    private static final int ACCOUNTS = 1_000;
+
+    public static void main(String[] args) {
+        BankAccount[] accounts = new BankAccount[ACCOUNTS];
+        AccountRegistry registry = new AccountRegistry();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = new BankAccount("ACC" + i, 1_000);
+            registry.register(accounts[i]);
+        }
+
+        long baseline = usedHeap();
+        Stack<TransactionCommand> stack = new Stack<>();
+        for (int i = 0; i < COMMANDS; i++) {
+            DepositCommand command = new DepositCommand(accounts[i % ACCOUNTS], 1 + i % 100);
+            command.execute();
+            stack.push(command);
+        }
+        long stackBytes = usedHeap() - baseline;
+        System.out.println("(stack holds " + stack.size() + " commands)");
+        stack = null;
+
+        baseline = usedHeap();
+        UndoLog undoLog = new UndoLog(COMMANDS);
+        for (int i = 0; i < COMMANDS; i++) {
+            DepositCommand command = new DepositCommand(accounts[i % ACCOUNTS], 1 + i % 100);
+            command.execute();
+            undoLog.append(registry.idOf(command.getAccount()), command.opcode(), command.getAmountMinor());
+        }
+        long undoLogBytes = usedHeap() - baseline;
+        System.out.println("(undo log holds " + undoLog.size() + " entries)");
+
+        System.out.printf("Stack<TransactionCommand> : %6.1f MB per million commands (%5.1f bytes each)%n",
+                stackBytes / 1e6 * 1_000_000 / COMMANDS, (double) stackBytes / COMMANDS);
+        System.out.printf("UndoLog ring buffer       : %6.1f MB per million commands (%5.1f bytes each)%n",
+                undoLogBytes / 1e6 * 1_000_000 / COMMANDS, (double) undoLogBytes / COMMANDS);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,114 @@
+package com.learning.patterns.behavioural.command;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+
+/*
+ * UndoHorizon:
+ * The newest balance changes that have not been undone, rebuilt from journal
+ * records. LedgerCheckpointer stores it in each snapshot, and
+ * TransactionJournal.open() rolls it forward over the journal tail, so a
+ * restarted TransactionInvoker can keep undoing where the last run stopped.
+ * - DEPOSIT/WITHDRAW records are pushed. Members of a BATCH after the first
+ *   carry UndoLog.LINKED, so a composite is still undone as one unit.
+ * - An UNDO_BATCH header of n members names the first LSN of the unit the
+ *   invoker undid. A unit's members sit at consecutive LSNs, so the entries
+ *   in [first, first + n) are cancelled as a whole and nothing else is.
+ * - Journals written before UNDO_BATCH logged bare UNDO_DEPOSIT/UNDO_WITHDRAW
+ *   records. Each still cancels the newest live entry with the same account,
+ *   opcode and amount, the best that can be done without an LSN.
+ * - Bounded: past `capacity` entries the oldest unit is dropped whole.
+ */
+final class UndoHorizon {
+
+    private final int capacity;
+    private final ArrayDeque<JournalEntry> entries = new ArrayDeque<>();
+    private int batchRemaining;
+    private int batchIndex;
+    private boolean undoBatch;
+
+    UndoHorizon(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // Starts from a snapshot's horizon (oldest first)
+    UndoHorizon(int capacity, List<JournalEntry> restored) {
+        this(capacity);
+        for (JournalEntry entry : restored) {
+            byte opcode = (byte) (entry.opcode() & ~UndoLog.LINKED);
+            if (opcode == TransactionJournal.DEPOSIT || opcode == TransactionJournal.WITHDRAW) {
+                push(entry);
+            }
+        }
+    }
+
+    // Same shape as TransactionJournal.RecordVisitor, minus the account number
+    void visit(long lsn, byte opcode, int accountId, long amountMinor) {
+        if (TransactionJournal.isBatchHeader(opcode)) {
+            batchRemaining = accountId;
+            batchIndex = 0;
+            undoBatch = opcode == TransactionJournal.UNDO_BATCH;
+            if (undoBatch) {
+                cancelUnit(amountMinor, accountId);
+            }
+            return;
+        }
+        boolean linked = false;
+        if (batchRemaining > 0) {
+            batchRemaining--;
+            linked = batchIndex++ > 0;
+            if (undoBatch) {
+                return; // the header already cancelled the whole unit
+            }
+        }
+        switch (opcode) {
+            case TransactionJournal.DEPOSIT, TransactionJournal.WITHDRAW ->
+                    push(new JournalEntry(lsn, linked ? (byte) (opcode | UndoLog.LINKED) : opcode, accountId, amountMinor));
+            case TransactionJournal.UNDO_DEPOSIT -> cancel(TransactionJournal.DEPOSIT, accountId, amountMinor);
+            case TransactionJournal.UNDO_WITHDRAW -> cancel(TransactionJournal.WITHDRAW, accountId, amountMinor);
+            default -> { } // OPEN changes no undo history
+        }
+    }
+
+    // Oldest first
+    List<JournalEntry> entries() {
+        return List.copyOf(entries);
+    }
+
+    private void push(JournalEntry entry) {
+        entries.addLast(entry);
+        while (entries.size() > capacity) {
+            entries.pollFirst();
+            while (!entries.isEmpty() && (entries.peekFirst().opcode() & UndoLog.LINKED) != 0) {
+                entries.pollFirst();
+            }
+        }
+    }
+
+    // Removes a unit's members, which were journaled at consecutive LSNs from firstLsn
+    private void cancelUnit(long firstLsn, int members) {
+        Iterator<JournalEntry> newestFirst = entries.descendingIterator();
+        while (newestFirst.hasNext()) {
+            JournalEntry entry = newestFirst.next();
+            if (entry.lsn() < firstLsn) {
+                return; // entries are in LSN order
+            }
+            if (entry.lsn() < firstLsn + members) {
+                newestFirst.remove();
+            }
+        }
+    }
+
+    private void cancel(byte opcode, int accountId, long amountMinor) {
+        Iterator<JournalEntry> newestFirst = entries.descendingIterator();
+        while (newestFirst.hasNext()) {
+            JournalEntry entry = newestFirst.next();
+            if ((entry.opcode() & ~UndoLog.LINKED) == opcode && entry.accountId() == accountId
+                    && entry.amountMinor() == amountMinor) {
+                newestFirst.remove();
+                return;
+            }
+        }
+    }
+}
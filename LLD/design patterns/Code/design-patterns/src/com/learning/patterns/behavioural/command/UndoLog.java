@@ -0,0 +1,335 @@
+package com.learning.patterns.behavioural.command;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+ * UndoLog:
+ * Bounded undo history kept as a primitive ring buffer instead of command objects.
+ * - Each entry is (account id, opcode, amount in minor units, journal LSN) in
+ *   parallel arrays, plus a link to the previous entry of the same account for
+ *   per-account undo. That is ~29 bytes per entry and nothing for the GC to
+ *   trace. The LSN (-1 without a journal) lets an undo record name exactly
+ *   which entry it reverses.
+ * - Entries are addressed by a sequence number; sequence s lives in slot
+ *   s % depth while it is inside the window [nextSeq - depth, nextSeq).
+ * - When the ring is full the oldest entry is evicted: dropped, or appended to a
+ *   spill file when one is configured. Once every in-memory entry has been
+ *   undone, latest() reloads the newest spilled entries so undo can keep going.
+ *   Per-account undo only looks at the in-memory window.
+ * - Multi-account commands are stored as consecutive entries where every entry
+ *   after the first carries the LINKED flag; groupStart()/groupEnd() find the
+ *   whole unit so it can be undone together.
+ * - A group only ever moves as a unit: evicting its first entry evicts the rest
+ *   with it, and a reload starts at a group's first entry. A group larger than
+ *   the depth can never be undone as a unit, so appendGroup() clears the
+ *   history instead of storing it.
+ * - Methods are synchronized; each call is a handful of array operations.
+ */
+public class UndoLog implements AutoCloseable {
+
+    static final byte REMOVED = 0;
+    // Flag on an entry's opcode: it belongs to the same unit as the entry just before it
+    static final byte LINKED = 0x40;
+    private static final int SPILL_RECORD_BYTES = 1 + 4 + 8 + 8;
+    private static final int SPILL_BUFFER_BYTES = 64 * 1024;
+
+    private final int depth;
+    private final int[] accountIds;
+    private final byte[] opcodes;
+    private final long[] amounts;
+    private final long[] lsns;
+    private final long[] previousOfAccount;
+    private long[] latestOfAccount = new long[16];
+    private long nextSeq;
+    private int liveCount;
+
+    private final Path spillFile;
+    private FileChannel spill;
+    private ByteBuffer spillBuffer;
+    private long spilledCount;
+
+    public UndoLog(int depth) {
+        this(depth, null);
+    }
+
+    public UndoLog(int depth, Path spillFile) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Undo depth must be positive");
+        }
+        this.depth = depth;
+        this.accountIds = new int[depth];
+        this.opcodes = new byte[depth];
+        this.amounts = new long[depth];
+        this.lsns = new long[depth];
+        this.previousOfAccount = new long[depth];
+        this.spillFile = spillFile;
+        Arrays.fill(latestOfAccount, -1);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    public synchronized long spilled() {
+        return spilledCount;
+    }
+
+    public long appendGroup(int[] accountIds, byte[] opcodes, long[] amountsMinor) {
+        return appendGroup(accountIds, opcodes, amountsMinor, -1);
+    }
+
+    /*
+     * Appends a multi-account unit; entries after the first get the LINKED flag.
+     * Members were journaled at consecutive LSNs starting at firstLsn (-1 if
+     * not journaled). Returns the first sequence number, or -1 if the group is
+     * larger than the depth, in which case everything older is discarded as
+     * well: undo stops at a unit it cannot reverse.
+     */
+    public synchronized long appendGroup(int[] accountIds, byte[] opcodes, long[] amountsMinor, long firstLsn) {
+        if (accountIds.length > depth) {
+            clear();
+            return -1;
+        }
+        long first = nextSeq;
+        for (int i = 0; i < accountIds.length; i++) {
+            append(accountIds[i], i == 0 ? opcodes[i] : (byte) (opcodes[i] | LINKED), amountsMinor[i],
+                    firstLsn < 0 ? -1 : firstLsn + i);
+        }
+        return first;
+    }
+
+    public long append(int accountId, byte opcode, long amountMinor) {
+        return append(accountId, opcode, amountMinor, -1);
+    }
+
+    public synchronized long append(int accountId, byte opcode, long amountMinor, long lsn) {
+        if (nextSeq >= depth) {
+            evict(nextSeq - depth);
+        }
+        long seq = nextSeq++;
+        int slot = slot(seq);
+        accountIds[slot] = accountId;
+        opcodes[slot] = opcode;
+        amounts[slot] = amountMinor;
+        lsns[slot] = lsn;
+        if (accountId >= latestOfAccount.length) {
+            int oldLength = latestOfAccount.length;
+            latestOfAccount = Arrays.copyOf(latestOfAccount, Math.max(accountId + 1, oldLength * 2));
+            Arrays.fill(latestOfAccount, oldLength, latestOfAccount.length, -1);
+        }
+        previousOfAccount[slot] = latestOfAccount[accountId];
+        latestOfAccount[accountId] = seq;
+        liveCount++;
+        return seq;
+    }
+
+    // Newest entry that has not been undone, or -1 if there is none.
+    public synchronized long latest() {
+        if (liveCount == 0 && spilledCount > 0) {
+            reloadFromSpill();
+        }
+        for (long seq = nextSeq - 1; seq >= windowStart(); seq--) {
+            if (opcodes[slot(seq)] != REMOVED) {
+                return seq;
+            }
+        }
+        return -1;
+    }
+
+    // Newest in-memory entry of one account that has not been undone, or -1.
+    public synchronized long latestFor(int accountId) {
+        if (accountId >= latestOfAccount.length) {
+            return -1;
+        }
+        long seq = latestOfAccount[accountId];
+        while (seq >= windowStart()) {
+            int slot = slot(seq);
+            if (opcodes[slot] != REMOVED) {
+                return seq;
+            }
+            seq = previousOfAccount[slot];
+        }
+        return -1;
+    }
+
+    public synchronized int accountId(long seq) {
+        return accountIds[checkedSlot(seq)];
+    }
+
+    // DEPOSIT or WITHDRAW, without the LINKED flag
+    public synchronized byte opcode(long seq) {
+        return (byte) (opcodes[checkedSlot(seq)] & ~LINKED);
+    }
+
+    // Oldest entry of the unit that seq belongs to; units are always whole in memory.
+    public synchronized long groupStart(long seq) {
+        checkedSlot(seq);
+        while ((opcodes[slot(seq)] & LINKED) != 0) {
+            seq--;
+            if (seq < windowStart()) {
+                throw new IllegalStateException("Undo group of entry " + seq + " is not whole in memory");
+            }
+        }
+        return seq;
+    }
+
+    // Newest entry of the unit that seq belongs to.
+    public synchronized long groupEnd(long seq) {
+        checkedSlot(seq);
+        while (seq + 1 < nextSeq && (opcodes[slot(seq + 1)] & LINKED) != 0) {
+            seq++;
+        }
+        return seq;
+    }
+
+    public synchronized long amountMinor(long seq) {
+        return amounts[checkedSlot(seq)];
+    }
+
+    // Journal LSN of the entry's record, or -1 if it was not journaled
+    public synchronized long lsn(long seq) {
+        return lsns[checkedSlot(seq)];
+    }
+
+    // Marks an entry as undone.
+    public synchronized void remove(long seq) {
+        int slot = checkedSlot(seq);
+        if (opcodes[slot] != REMOVED) {
+            opcodes[slot] = REMOVED;
+            liveCount--;
+        }
+    }
+
+    // Evicts the oldest entry and, if it starts a group, the rest of that group.
+    private void evict(long seq) {
+        int slot = slot(seq);
+        if (opcodes[slot] == REMOVED) {
+            return;
+        }
+        do {
+            liveCount--;
+            if (spillFile != null) {
+                writeSpill(opcodes[slot], accountIds[slot], amounts[slot], lsns[slot]);
+            }
+            opcodes[slot] = REMOVED;
+            seq++;
+            slot = slot(seq);
+        } while (seq < nextSeq && (opcodes[slot] & LINKED) != 0);
+    }
+
+    private void writeSpill(byte opcode, int accountId, long amountMinor, long lsn) {
+        try {
+            if (spill == null) {
+                spill = FileChannel.open(spillFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                spillBuffer = ByteBuffer.allocate(SPILL_BUFFER_BYTES);
+            }
+            if (spillBuffer.remaining() < SPILL_RECORD_BYTES) {
+                flushSpill();
+            }
+            spillBuffer.put(opcode).putInt(accountId).putLong(amountMinor).putLong(lsn);
+            spilledCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill undo entry", e);
+        }
+    }
+
+    private void flushSpill() throws IOException {
+        spillBuffer.flip();
+        while (spillBuffer.hasRemaining()) {
+            spill.write(spillBuffer, spill.size());
+        }
+        spillBuffer.clear();
+    }
+
+    /*
+     * Called only when no in-memory entry is live: moves the newest spilled
+     * entries (up to depth of them) back into the ring, oldest first, and
+     * shortens the spill file accordingly. The spill always ends on a whole
+     * group, and leading LINKED records are left behind with the start of
+     * their group, so a reload never splits one.
+     */
+    private void reloadFromSpill() {
+        try {
+            flushSpill();
+            int count = (int) Math.min(depth, spilledCount);
+            long from = (spilledCount - count) * SPILL_RECORD_BYTES;
+            ByteBuffer records = ByteBuffer.allocate(count * SPILL_RECORD_BYTES);
+            while (records.hasRemaining()) {
+                if (spill.read(records, from + records.position()) < 0) {
+                    throw new IOException("Undo spill file is shorter than expected");
+                }
+            }
+            records.flip();
+            while (count > 0 && (records.get(records.position()) & LINKED) != 0) {
+                records.position(records.position() + SPILL_RECORD_BYTES);
+                from += SPILL_RECORD_BYTES;
+                count--;
+            }
+            spill.truncate(from);
+            spilledCount -= count;
+
+            Arrays.fill(opcodes, REMOVED);
+            Arrays.fill(latestOfAccount, -1);
+            nextSeq = 0;
+            for (int i = 0; i < count; i++) {
+                byte opcode = records.get();
+                int accountId = records.getInt();
+                long amountMinor = records.getLong();
+                append(accountId, opcode, amountMinor, records.getLong());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not reload undo entries", e);
+        }
+    }
+
+    private void clear() {
+        Arrays.fill(opcodes, REMOVED);
+        Arrays.fill(latestOfAccount, -1);
+        liveCount = 0;
+        spilledCount = 0;
+        if (spill != null) {
+            try {
+                spillBuffer.clear();
+                spill.truncate(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not clear undo spill file", e);
+            }
+        }
+    }
+
+    private long windowStart() {
+        return Math.max(0, nextSeq - depth);
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % depth);
+    }
+
+    private int checkedSlot(long seq) {
+        if (seq < windowStart() || seq >= nextSeq) {
+            throw new IllegalArgumentException("Undo entry " + seq + " is no longer in memory");
+        }
+        return slot(seq);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (spill != null) {
+            spill.close();
+            spill = null;
+            Files.deleteIfExists(spillFile);
+        }
+    }
+}
@@ -1,24 +1,38 @@
 package com.learning.patterns.behavioural.command;
 
+import lombok.Getter;
+
 /*
  * Concrete Command: Withdraw
+ * - A withdrawal rejected for insufficient funds is remembered as not applied,
+ *   so undoing it does not credit money that was never taken.
  */
-public class WithdrawCommand implements TransactionCommand {
-    private BankAccount account;
-    private double amount;
+@Getter
+public class WithdrawCommand implements AccountCommand {
+    private final BankAccount account;
+    private final long amountMinor;
+    private boolean applied;
 
     public WithdrawCommand(BankAccount account, double amount) {
         this.account = account;
-        this.amount = amount;
+        this.amountMinor = Money.requirePositiveMinorUnits(amount);
+    }
+
+    @Override
+    public byte opcode() {
+        return TransactionJournal.WITHDRAW;
     }
 
     @Override
     public void execute() {
-        account.withdraw(amount);
+        applied = account.debit(amountMinor);
     }
 
     @Override
     public void undo() {
-        account.deposit(amount); // undo withdraw
+        if (applied) {
+            account.credit(amountMinor); // undo withdraw
+            applied = false;
+        }
     }
 }
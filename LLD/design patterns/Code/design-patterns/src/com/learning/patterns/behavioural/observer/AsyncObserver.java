@@ -0,0 +1,180 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Async Observer (decorator)
+ * - Wraps a slow Observer so that update() only enqueues the event and returns.
+ * - Each wrapped observer has its own bounded MpscRingBuffer and one delivery
+ *   thread (platform or virtual), so one slow subscriber never delays
+ *   completePayment() or the other subscribers.
+ * - A single consumer per observer delivers events in the order they were
+ *   published, so the events of one transaction are never reordered.
+ * - What happens on a full queue is chosen per observer (BackpressurePolicy).
+ *   SPILL overflows into a second bounded ring buffer (16x the queue by
+ *   default); once that is full too, the producer waits as with BLOCK, so
+ *   a stuck observer can slow the publisher but never exhaust its heap.
+ * - An idle consumer parks until a producer unparks it: it sets consumerIdle,
+ *   re-checks the queue, then parks; producers publish first and then read
+ *   consumerIdle, so one of the two always sees the other.
+ * - close() waits for update() calls already in flight, so every accepted
+ *   event is delivered; update() after close() throws.
+ */
+public final class AsyncObserver implements Observer, AutoCloseable {
+
+    // How long a BLOCK producer waits before re-trying a full queue
+    private static final long FULL_QUEUE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Observer delegate;
+    private final BackpressurePolicy policy;
+    private final MpscRingBuffer<PaymentEvent> queue;
+    private final MpscRingBuffer<PaymentEvent> overflow; // SPILL only, else null
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Thread consumer;
+    private volatile boolean consumerIdle;
+    private volatile boolean closed;
+    private volatile boolean stopping; // closed and no update() still in flight
+
+    public AsyncObserver(Observer delegate, int capacity, BackpressurePolicy policy) {
+        this(delegate, capacity, policy, false);
+    }
+
+    public AsyncObserver(Observer delegate, int capacity, BackpressurePolicy policy, boolean virtualThread) {
+        this(delegate, capacity, policy, virtualThread, capacity * 16);
+    }
+
+    // spillCapacity: size of the SPILL overflow buffer, a power of two
+    public AsyncObserver(Observer delegate, int capacity, BackpressurePolicy policy, boolean virtualThread,
+                         int spillCapacity) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.queue = new MpscRingBuffer<>(capacity);
+        this.overflow = policy == BackpressurePolicy.SPILL ? new MpscRingBuffer<>(spillCapacity) : null;
+        String name = "observer-" + delegate.getClass().getSimpleName();
+        this.consumer = virtualThread
+                ? Thread.ofVirtual().name(name).unstarted(this::deliverLoop)
+                : Thread.ofPlatform().name(name).daemon(true).unstarted(this::deliverLoop);
+        consumer.start();
+    }
+
+    @Override
+    public void update(String transactionId, String status) {
+        inFlight.incrementAndGet();
+        try {
+            enqueue(transactionId, status);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void enqueue(String transactionId, String status) {
+        if (closed) {
+            throw new IllegalStateException("Observer " + delegate.getClass().getSimpleName() + " is closed");
+        }
+        PaymentEvent event = new PaymentEvent(transactionId, status);
+        // Once anything has spilled, later events must queue behind it to keep order
+        if (policy == BackpressurePolicy.SPILL && !overflow.isEmpty()) {
+            spill(event);
+        } else if (!queue.offer(event)) {
+            switch (policy) {
+                case BLOCK -> {
+                    while (!queue.offer(event)) {
+                        wakeConsumer();
+                        LockSupport.parkNanos(FULL_QUEUE_PARK_NANOS);
+                    }
+                }
+                case DROP_OLDEST -> {
+                    while (!queue.offer(event)) {
+                        if (queue.poll() != null) {
+                            dropped.increment();
+                        }
+                    }
+                }
+                case SPILL -> spill(event);
+            }
+        }
+        wakeConsumer();
+    }
+
+    // Falls back to BLOCK while the overflow buffer is full too
+    private void spill(PaymentEvent event) {
+        while (!overflow.offer(event)) {
+            wakeConsumer();
+            LockSupport.parkNanos(FULL_QUEUE_PARK_NANOS);
+        }
+        spilled.increment();
+    }
+
+    private void wakeConsumer() {
+        if (consumerIdle) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void deliverLoop() {
+        while (true) {
+            // Read before polling: once stopping is set, no more events can arrive
+            boolean stop = stopping;
+            PaymentEvent event = queue.poll();
+            if (event == null && overflow != null) {
+                event = overflow.poll();
+            }
+            if (event != null) {
+                try {
+                    delegate.update(event.transactionId(), event.status());
+                } catch (RuntimeException e) {
+                    System.err.println("Observer " + delegate.getClass().getSimpleName() + " failed: " + e.getMessage());
+                }
+                delivered.increment();
+                continue;
+            }
+            if (stop) {
+                return;
+            }
+            consumerIdle = true;
+            if (queue.isEmpty() && (overflow == null || overflow.isEmpty()) && !stopping) {
+                LockSupport.park(this);
+            }
+            consumerIdle = false;
+        }
+    }
+
+    public int queued() {
+        return queue.size() + (overflow == null ? 0 : overflow.size());
+    }
+
+    public long delivered() {
+        return delivered.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public long spilled() {
+        return spilled.sum();
+    }
+
+    // Stops accepting events, delivers everything already queued, then stops the thread.
+    @Override
+    public void close() {
+        closed = true;
+        // An update() that passed its closed check before this is still enqueuing
+        while (inFlight.get() != 0) {
+            Thread.yield();
+        }
+        stopping = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
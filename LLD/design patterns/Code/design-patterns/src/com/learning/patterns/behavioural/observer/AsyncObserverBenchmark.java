@@ -0,0 +1,86 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * completePayment() latency as one observer gets slower.
+ * - Three observers; the "settlement" one sleeps for 0, 100 us or 1 ms per event.
+ * - sync : the stock UpiPaymentService loop, observers run on the caller thread.
+ * - async: the same observers wrapped in AsyncObserver.
+ * - Console output is discarded so only dispatch cost is measured.
+ */
+public class AsyncObserverBenchmark {
+
+    private static final int PAYMENTS = 1_000;
+    private static final int QUEUE_CAPACITY = 1_024;
+
+    public static void main(String[] args) {
+        PrintStream console = System.out;
+        System.out.printf("%-18s %-6s %10s %10s%n", "settlement delay", "mode", "p50 us", "p99 us");
+        for (long delayMicros : new long[]{0, 100, 1_000}) {
+            long[] sync = measure(delayMicros, false, console);
+            long[] async = measure(delayMicros, true, console);
+            report(console, delayMicros, "sync", sync);
+            report(console, delayMicros, "async", async);
+        }
+    }
+
+    private static long[] measure(long delayMicros, boolean async, PrintStream console) {
+        Observer[] observers = {
+                new SimulatedObserver(0), new SimulatedObserver(0), new SimulatedObserver(delayMicros)
+        };
+        UpiPaymentService service = new UpiPaymentService();
+        AsyncObserver[] wrappers = new AsyncObserver[observers.length];
+        for (int i = 0; i < observers.length; i++) {
+            if (async) {
+                wrappers[i] = new AsyncObserver(observers[i], QUEUE_CAPACITY, BackpressurePolicy.DROP_OLDEST);
+                service.registerObserver(wrappers[i]);
+            } else {
+                service.registerObserver(observers[i]);
+            }
+        }
+        long[] latencies = new long[PAYMENTS];
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            for (int i = 0; i < PAYMENTS; i++) {
+                long start = System.nanoTime();
+                service.completePayment("TXN" + i);
+                latencies[i] = System.nanoTime() - start;
+            }
+        } finally {
+            System.setOut(console);
+            for (AsyncObserver wrapper : wrappers) {
+                if (wrapper != null) {
+                    wrapper.close();
+                }
+            }
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void report(PrintStream out, long delayMicros, String mode, long[] sorted) {
+        out.printf("%-18s %-6s %10.1f %10.1f%n", delayMicros + " us", mode,
+                sorted[sorted.length / 2] / 1e3, sorted[(int) (sorted.length * 0.99) - 1] / 1e3);
+    }
+
+    // Observer that takes a fixed time per event, like a remote call.
+    static class SimulatedObserver implements Observer {
+        private final long delayNanos;
+
+        SimulatedObserver(long delayMicros) {
+            this.delayNanos = TimeUnit.MICROSECONDS.toNanos(delayMicros);
+        }
+
+        @Override
+        public void update(String transactionId, String status) {
+            if (delayNanos > 0) {
+                LockSupport.parkNanos(delayNanos);
+            }
+        }
+    }
+}
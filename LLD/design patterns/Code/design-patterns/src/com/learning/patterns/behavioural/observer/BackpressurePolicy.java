@@ -0,0 +1,14 @@
+package com.learning.patterns.behavioural.observer;
+
+/*
+ * What an AsyncObserver does when its queue is full.
+ */
+public enum BackpressurePolicy {
+    // Publisher waits for space: nothing is lost, but a stuck observer slows the publisher.
+    BLOCK,
+    // Oldest queued event is discarded to make room: publisher never waits.
+    DROP_OLDEST,
+    // Event goes to a larger, still bounded overflow buffer: nothing is lost and the publisher
+    // only waits (as with BLOCK) once that is full too.
+    SPILL
+}
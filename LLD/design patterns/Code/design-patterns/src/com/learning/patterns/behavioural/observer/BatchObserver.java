@@ -0,0 +1,12 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.util.List;
+
+/*
+ * Observer that handles events in bulk.
+ * - Called by BatchingObserver with up to maxBatchSize events, in publish order.
+ * - The list belongs to the callee; it is never reused by the caller.
+ */
+public interface BatchObserver {
+    void onBatch(List<PaymentEvent> events);
+}
@@ -0,0 +1,147 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Micro-batching adapter (Observer -> BatchObserver)
+ * - update() queues the event; one flusher thread hands events to the
+ *   BatchObserver in batches.
+ * - A batch is flushed when it reaches maxBatchSize or when its first event
+ *   has waited `linger`, whichever comes first, so a quiet period never
+ *   strands events.
+ * - Memory is bounded: at most `capacity` events wait in the queue plus one
+ *   batch being built. When the queue is full update() blocks, which slows
+ *   the publisher down to the rate the batch side can sustain.
+ * - close() stops accepting events, waits for update() calls already in
+ *   flight (the flusher keeps draining, so a blocked put() completes), then
+ *   flushes everything still queued and stops the thread. Every accepted
+ *   event is delivered; update() after close() throws.
+ */
+public class BatchingObserver implements Observer, AutoCloseable {
+
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final BatchObserver delegate;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<PaymentEvent> queue;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean closed;
+    private volatile boolean stopping; // closed and no update() still in flight
+
+    public BatchingObserver(BatchObserver delegate, int maxBatchSize, long linger, TimeUnit unit) {
+        this(delegate, maxBatchSize, linger, unit, maxBatchSize * 4);
+    }
+
+    public BatchingObserver(BatchObserver delegate, int maxBatchSize, long linger, TimeUnit unit, int capacity) {
+        if (maxBatchSize < 1 || capacity < maxBatchSize) {
+            throw new IllegalArgumentException("Need maxBatchSize >= 1 and capacity >= maxBatchSize");
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = unit.toNanos(linger);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flusher = Thread.ofPlatform()
+                .name("batch-" + delegate.getClass().getSimpleName())
+                .daemon(true)
+                .start(this::flushLoop);
+    }
+
+    @Override
+    public void update(String transactionId, String status) {
+        inFlight.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Observer " + delegate.getClass().getSimpleName() + " is closed");
+            }
+            queue.put(new PaymentEvent(transactionId, status));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing event " + transactionId, e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            while (true) {
+                // Read before polling: once stopping is set, no more events can arrive
+                boolean stop = stopping;
+                PaymentEvent first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    if (stop) {
+                        return;
+                    }
+                    continue;
+                }
+                List<PaymentEvent> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    // On close, flush what is queued right away instead of lingering
+                    if (batch.size() == maxBatchSize || remaining <= 0 || closed) {
+                        break;
+                    }
+                    PaymentEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                deliver(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(List<PaymentEvent> batch) {
+        try {
+            delegate.onBatch(batch);
+        } catch (RuntimeException e) {
+            System.err.println("Batch observer " + delegate.getClass().getSimpleName() + " failed: " + e.getMessage());
+        }
+        batches.increment();
+        flushed.add(batch.size());
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    public long flushed() {
+        return flushed.sum();
+    }
+
+    // Stops accepting events, flushes everything already queued, then stops the thread.
+    @Override
+    public void close() {
+        closed = true;
+        // An update() that passed its closed check before this is still enqueuing
+        while (inFlight.get() != 0) {
+            Thread.yield();
+        }
+        stopping = true;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
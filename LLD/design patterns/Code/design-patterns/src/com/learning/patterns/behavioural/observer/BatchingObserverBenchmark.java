@@ -0,0 +1,81 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Throughput and latency of BatchingObserver for several batch sizes.
+ * - The simulated settlement side costs 200 us per call plus 2 us per event,
+ *   like a remote API that is far cheaper per item in bulk.
+ * - Throughput: publish as fast as back-pressure allows, until close()
+ *   has flushed everything.
+ * - Latency: publish at a fixed 2,000 events/s and record publish-to-onBatch
+ *   time per event (p50 / p99), which shows the linger cost of larger batches.
+ * - Batch size 1 is the unbatched baseline (one call per event).
+ */
+public class BatchingObserverBenchmark {
+
+    private static final long LINGER_MILLIS = 5;
+    private static final int THROUGHPUT_EVENTS = 20_000;
+    private static final int LATENCY_EVENTS = 2_000;
+    private static final long LATENCY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1) / 2_000;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %14s %8s %10s %10s%n", "batch", "events/s", "calls", "p50 us", "p99 us");
+        for (int batchSize : new int[]{1, 8, 32, 128, 512}) {
+            SimulatedSettlement throughputSide = new SimulatedSettlement(THROUGHPUT_EVENTS);
+            long start = System.nanoTime();
+            try (BatchingObserver batching = new BatchingObserver(throughputSide, batchSize, LINGER_MILLIS, TimeUnit.MILLISECONDS)) {
+                for (int i = 0; i < THROUGHPUT_EVENTS; i++) {
+                    throughputSide.published[i] = System.nanoTime();
+                    batching.update("TXN" + i, "SUCCESS");
+                }
+            }
+            double eventsPerSecond = THROUGHPUT_EVENTS / ((System.nanoTime() - start) / 1e9);
+
+            SimulatedSettlement latencySide = new SimulatedSettlement(LATENCY_EVENTS);
+            try (BatchingObserver batching = new BatchingObserver(latencySide, batchSize, LINGER_MILLIS, TimeUnit.MILLISECONDS)) {
+                long next = System.nanoTime();
+                for (int i = 0; i < LATENCY_EVENTS; i++) {
+                    LockSupport.parkNanos(next - System.nanoTime());
+                    latencySide.published[i] = System.nanoTime();
+                    batching.update("TXN" + i, "SUCCESS");
+                    next += LATENCY_INTERVAL_NANOS;
+                }
+            }
+            long[] latencies = latencySide.latencies;
+            Arrays.sort(latencies);
+            System.out.printf("%-10d %,14.0f %8d %10.0f %10.0f%n", batchSize, eventsPerSecond, throughputSide.calls,
+                    latencies[latencies.length / 2] / 1e3, latencies[(int) (latencies.length * 0.99) - 1] / 1e3);
+        }
+    }
+
+    // Settlement endpoint with a fixed per-call cost and a small per-event cost.
+    static class SimulatedSettlement implements BatchObserver {
+        private static final long PER_CALL_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+        private static final long PER_EVENT_NANOS = TimeUnit.MICROSECONDS.toNanos(2);
+
+        final long[] published;
+        final long[] latencies;
+        int calls;
+
+        SimulatedSettlement(int events) {
+            this.published = new long[events];
+            this.latencies = new long[events];
+        }
+
+        @Override
+        public void onBatch(List<PaymentEvent> events) {
+            LockSupport.parkNanos(PER_CALL_NANOS + PER_EVENT_NANOS * events.size());
+            calls++;
+            long now = System.nanoTime();
+            for (PaymentEvent event : events) {
+                String id = event.transactionId();
+                int sequence = Integer.parseInt(id, 3, id.length(), 10);
+                latencies[sequence] = now - published[sequence];
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/*
+ * EventOutbox:
+ * Durable, memory-mapped log of payment events with one cursor per observer.
+ *
+ * Register the outbox as an ordinary Observer; observers that must not lose
+ * events subscribe to the outbox under a stable name instead of to the service:
+ *   upiService.registerObserver(outbox);
+ *   outbox.subscribe("merchant-dashboard", new MerchantDashboardService());
+ *
+ * Record format (big-endian), in fixed-size segment files outbox-<position>.log:
+ *   [length:4][crc32:4][idLen:2][transactionId utf8][statusLen:1][status utf8]
+ * A record's position is its byte offset in the whole log. Records never span
+ * segments; a segment is named after the position of its first record.
+ *
+ * - update() appends the record into the mapped segment (a memcpy into the page
+ *   cache, no system call) and only then dispatches it to the subscribers.
+ * - Each subscriber has a cursor file <name>.cursor holding the position of the
+ *   next record it has not yet processed. It is advanced after the observer
+ *   returns, so an observer that throws, or a process that dies mid-dispatch,
+ *   leaves the event to be redelivered (at-least-once).
+ * - subscribe() replays everything from the stored cursor before going live.
+ * - Mapped writes survive a process crash; sync() forces them to disk for
+ *   power-loss durability, including segments rolled since the last sync.
+ *   If a segment was renamed into place or a cursor file created since then,
+ *   sync() also forces the directory, so those names survive power loss too.
+ * - The next segment is created, mapped and pre-faulted on a background thread
+ *   as outbox-spare.tmp; a roll only renames it, so publishers never wait for
+ *   a fresh 16 MB mapping while holding the outbox lock.
+ * - Recovery stops the last segment at the first torn or corrupt record.
+ */
+public final class EventOutbox implements Observer, AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 16 << 20;
+    private static final int HEADER_BYTES = 4 + 4;
+    private static final int PAGE_BYTES = 4096;
+    private static final String SEGMENT_PREFIX = "outbox-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CURSOR_SUFFIX = ".cursor";
+    private static final String SPARE_NAME = "outbox-spare.tmp";
+    // One shared daemon thread maps and pre-faults spare segments for every outbox
+    private static final Executor PREALLOCATOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-preallocate");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+    private final Path directory;
+    private final Path spareFile;
+    private final int segmentBytes;
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final CRC32 crc = new CRC32();          // guarded by this
+    private MappedByteBuffer tail;                  // guarded by this
+    private long tailBase;                          // guarded by this
+    private final List<MappedByteBuffer> unsynced = new ArrayList<>(); // rolled since sync(); guarded by this
+    private CompletableFuture<MappedByteBuffer> spare; // next segment, being pre-faulted; guarded by this
+    private boolean directoryChanged;               // file created or renamed since sync(); guarded by this
+    private boolean closed;                         // guarded by this
+    private volatile long end;                      // position after the last complete record
+    private volatile Subscriber[] subscribers = NO_SUBSCRIBERS;
+
+    private EventOutbox(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.spareFile = directory.resolve(SPARE_NAME);
+        this.segmentBytes = segmentBytes;
+    }
+
+    public static EventOutbox open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public static EventOutbox open(Path directory, int segmentBytes) throws IOException {
+        Files.createDirectories(directory);
+        EventOutbox outbox = new EventOutbox(directory, segmentBytes);
+        Files.deleteIfExists(outbox.spareFile); // left over from a crash
+        List<Path> files = listSegments(directory);
+        synchronized (outbox) {
+            if (files.isEmpty()) {
+                outbox.roll(0);
+                return outbox;
+            }
+            for (Path file : files) {
+                outbox.segments.put(positionOf(file), map(file, Files.size(file)));
+            }
+            Map.Entry<Long, MappedByteBuffer> last = outbox.segments.lastEntry();
+            outbox.tail = last.getValue();
+            outbox.tailBase = last.getKey();
+            outbox.end = last.getKey() + validBytes(last.getValue());
+            outbox.prepareSpare();
+        }
+        return outbox;
+    }
+
+    /*
+     * Registers a durable observer. Events it has not acknowledged yet (from an
+     * earlier run) are replayed before this returns; a name seen for the first
+     * time starts at the current end of the log. Returns the number replayed.
+     */
+    public synchronized long subscribe(String name, Observer observer) throws IOException {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.name.equals(name)) {
+                throw new IllegalArgumentException("Subscriber " + name + " is already registered");
+            }
+        }
+        Path cursorFile = directory.resolve(name + CURSOR_SUFFIX);
+        boolean known = Files.exists(cursorFile);
+        MappedByteBuffer cursorBuffer = map(cursorFile, Long.BYTES);
+        directoryChanged |= !known;
+        long start = known ? cursorBuffer.getLong(0) : end;
+        start = Math.max(segments.firstKey(), Math.min(start, end));
+        Subscriber subscriber = new Subscriber(name, observer, cursorBuffer, start);
+        subscriber.ack(start);
+        long replayed = subscriber.drainTo(end);
+        Subscriber[] next = Arrays.copyOf(subscribers, subscribers.length + 1);
+        next[subscribers.length] = subscriber;
+        subscribers = next;
+        return replayed;
+    }
+
+    @Override
+    public void update(String transactionId, String status) {
+        byte[] id = transactionId.getBytes(StandardCharsets.UTF_8);
+        byte[] state = status.getBytes(StandardCharsets.UTF_8);
+        long position = append(id, state);
+        long next = position + HEADER_BYTES + payloadBytes(id, state);
+        Subscriber[] snapshot = subscribers;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i].deliver(position, next, transactionId, status);
+        }
+    }
+
+    // Writes one record and returns its position. Appends are sequential and never block on I/O.
+    private synchronized long append(byte[] id, byte[] state) {
+        if (closed) {
+            throw new IllegalStateException("Outbox is closed");
+        }
+        int payloadBytes = payloadBytes(id, state);
+        int recordBytes = HEADER_BYTES + payloadBytes;
+        if (id.length > Short.MAX_VALUE || state.length > Byte.MAX_VALUE || recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Event too large for the outbox: " + new String(id, StandardCharsets.UTF_8));
+        }
+        long position = end;
+        int offset = (int) (position - tailBase);
+        if (offset + recordBytes > tail.capacity()) {
+            try {
+                roll(position);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start outbox segment at " + position, e);
+            }
+            offset = 0;
+        }
+        int payload = offset + HEADER_BYTES;
+        tail.putShort(payload, (short) id.length);
+        tail.put(payload + 2, id);
+        tail.put(payload + 2 + id.length, (byte) state.length);
+        tail.put(payload + 3 + id.length, state);
+        crc.reset();
+        crc.update(tail.slice(payload, payloadBytes));
+        tail.putInt(offset + 4, (int) crc.getValue());
+        tail.putInt(offset, payloadBytes);
+        end = position + recordBytes;
+        return position;
+    }
+
+    private static int payloadBytes(byte[] id, byte[] state) {
+        return 2 + id.length + 1 + state.length;
+    }
+
+    public long end() {
+        return end;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    // Position of the next record the named subscriber has not processed, or -1 if it is not registered.
+    public long cursor(String name) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.name.equals(name)) {
+                return subscriber.cursor;
+            }
+        }
+        return -1;
+    }
+
+    // Forces appended records and cursors to disk (survives power loss, not just a process crash).
+    public synchronized void sync() {
+        for (MappedByteBuffer segment : unsynced) {
+            segment.force();
+        }
+        unsynced.clear();
+        tail.force();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.cursorBuffer.force();
+        }
+        if (directoryChanged) {
+            // Without this a rolled segment can lose its name on power loss, and open()
+            // would then delete it as a leftover outbox-spare.tmp
+            try {
+                forceDirectory(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync outbox directory " + directory, e);
+            }
+            directoryChanged = false;
+        }
+    }
+
+    /*
+     * Deletes segments every known cursor (registered or not) has moved past.
+     * Returns the number of segments deleted.
+     */
+    public synchronized int truncate() throws IOException {
+        long oldestCursor = end;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(CURSOR_SUFFIX)).toList()) {
+                oldestCursor = Math.min(oldestCursor, ByteBuffer.wrap(Files.readAllBytes(file)).getLong());
+            }
+        }
+        int deleted = 0;
+        for (Long base : new ArrayList<>(segments.keySet())) {
+            Long nextBase = segments.higherKey(base);
+            if (nextBase == null || nextBase > oldestCursor) {
+                break;
+            }
+            segments.remove(base);
+            Files.deleteIfExists(segmentPath(directory, base));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            sync();
+            closed = true;
+            if (spare != null) {
+                try {
+                    spare.join();
+                } catch (CompletionException e) {
+                    // nothing to clean up beyond the file itself
+                }
+                spare = null;
+                try {
+                    Files.deleteIfExists(spareFile);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not delete " + spareFile, e);
+                }
+            }
+        }
+    }
+
+    // Called under the lock: swaps in the pre-faulted spare (or maps one now) as the segment at position.
+    private void roll(long position) throws IOException {
+        Path file = segmentPath(directory, position);
+        MappedByteBuffer next = null;
+        if (spare != null) {
+            try {
+                next = spare.join(); // normally done long ago
+                Files.move(spareFile, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (CompletionException e) {
+                next = null; // pre-allocation failed; map synchronously below
+            }
+            spare = null;
+        }
+        if (next == null) {
+            next = preallocate(file, segmentBytes);
+        }
+        if (tail != null) {
+            unsynced.add(tail);
+        }
+        tail = next;
+        tailBase = position;
+        segments.put(position, tail);
+        directoryChanged = true;
+        prepareSpare();
+    }
+
+    // Starts mapping and pre-faulting the next segment off the publishing path.
+    private void prepareSpare() {
+        spare = CompletableFuture.supplyAsync(() -> {
+            try {
+                return preallocate(spareFile, segmentBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, PREALLOCATOR);
+    }
+
+    private static MappedByteBuffer preallocate(Path file, int bytes) throws IOException {
+        MappedByteBuffer buffer = map(file, bytes);
+        // Fault every page in now so appends don't take a page fault on first touch
+        for (int page = 0; page < bytes; page += PAGE_BYTES) {
+            buffer.put(page, (byte) 0);
+        }
+        return buffer;
+    }
+
+    // Length of the intact prefix of a segment: stops at an empty slot or a torn/corrupt record.
+    private static int validBytes(ByteBuffer segment) {
+        CRC32 checksum = new CRC32();
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segment.capacity()) {
+            int payloadBytes = segment.getInt(offset);
+            if (payloadBytes <= 0 || offset + HEADER_BYTES + payloadBytes > segment.capacity()) {
+                break;
+            }
+            checksum.reset();
+            checksum.update(segment.slice(offset + HEADER_BYTES, payloadBytes));
+            if ((int) checksum.getValue() != segment.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_BYTES + payloadBytes;
+        }
+        return offset;
+    }
+
+    private static String readString(ByteBuffer buffer, int index, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(index, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // fsync of the directory itself, which makes created and renamed names durable
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(EventOutbox::isSegment).sorted().toList();
+        }
+    }
+
+    static Path segmentPath(Path directory, long position) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, position, SEGMENT_SUFFIX));
+    }
+
+    private static long positionOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    /*
+     * One durable observer and its cursor. Delivery is serialised per subscriber,
+     * so it sees events in log order even when several threads publish.
+     */
+    private final class Subscriber {
+
+        private final String name;
+        private final Observer observer;
+        private final MappedByteBuffer cursorBuffer;
+        private volatile long cursor;
+
+        private Subscriber(String name, Observer observer, MappedByteBuffer cursorBuffer, long cursor) {
+            this.name = name;
+            this.observer = observer;
+            this.cursorBuffer = cursorBuffer;
+            this.cursor = cursor;
+        }
+
+        // Live delivery of the record at [position, next): catch up on any backlog first.
+        private synchronized void deliver(long position, long next, String transactionId, String status) {
+            if (cursor < position && drainTo(position) < 0) {
+                return;
+            }
+            if (cursor == position && dispatch(transactionId, status)) {
+                ack(next);
+            }
+        }
+
+        // Delivers records from the cursor up to limit; returns how many, or -1 if the observer failed.
+        private synchronized long drainTo(long limit) {
+            long delivered = 0;
+            while (cursor < limit) {
+                Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(cursor);
+                ByteBuffer buffer = segment.getValue();
+                int offset = (int) (cursor - segment.getKey());
+                int payload = offset + HEADER_BYTES;
+                int idLength = buffer.getShort(payload);
+                String transactionId = readString(buffer, payload + 2, idLength);
+                String status = readString(buffer, payload + 3 + idLength, buffer.get(payload + 2 + idLength));
+                if (!dispatch(transactionId, status)) {
+                    return -1;
+                }
+                ack(payload + buffer.getInt(offset) + segment.getKey());
+                delivered++;
+            }
+            return delivered;
+        }
+
+        private boolean dispatch(String transactionId, String status) {
+            try {
+                observer.update(transactionId, status);
+                return true;
+            } catch (RuntimeException e) {
+                System.err.println("Outbox subscriber " + name + " failed on " + transactionId + ": " + e.getMessage());
+                return false;
+            }
+        }
+
+        private void ack(long position) {
+            cursor = position;
+            cursorBuffer.putLong(0, position);
+        }
+    }
+}
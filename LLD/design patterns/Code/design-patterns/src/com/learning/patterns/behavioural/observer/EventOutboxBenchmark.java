@@ -0,0 +1,89 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/*
+ * completePayment() latency with and without the EventOutbox.
+ * - Two no-op observers, registered directly (plain) or as durable outbox
+ *   subscribers (outbox: append to the mapped log + cursor update per observer).
+ * - Small segments so the measurement includes segment rolls; the slowest
+ *   payment that rolled a segment shows whether a roll stalls the publisher.
+ * - Console output is discarded so only dispatch cost is measured.
+ */
+public class EventOutboxBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int PAYMENTS = 1_000_000;
+    private static final int SEGMENT_BYTES = 4 << 20;
+
+    private static long slowestRollNanos;
+
+    public static void main(String[] args) throws IOException {
+        PrintStream console = System.out;
+        Path directory = Files.createTempDirectory("outbox-bench");
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long[] plain = measure(null);
+            long[] outbox;
+            try (EventOutbox events = EventOutbox.open(directory, SEGMENT_BYTES)) {
+                outbox = measure(events);
+                System.setOut(console);
+                System.out.printf("log size: %,d bytes in %d segments, slowest rolling payment %,d ns%n",
+                        events.end(), EventOutbox.listSegments(directory).size(), slowestRollNanos);
+            }
+            System.out.printf("%-8s %10s %10s %10s%n", "mode", "p50 ns", "p99 ns", "p99.9 ns");
+            report("plain", plain);
+            report("outbox", outbox);
+        } finally {
+            System.setOut(console);
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static long[] measure(EventOutbox outbox) throws IOException {
+        UpiPaymentService service = new UpiPaymentService();
+        Observer first = (transactionId, status) -> { };
+        Observer second = (transactionId, status) -> { };
+        if (outbox == null) {
+            service.registerObserver(first);
+            service.registerObserver(second);
+        } else {
+            service.registerObserver(outbox);
+            outbox.subscribe("first", first);
+            outbox.subscribe("second", second);
+        }
+        for (int i = 0; i < WARMUP; i++) {
+            service.completePayment("TXN" + i);
+        }
+        long[] latencies = new long[PAYMENTS];
+        int segmentCount = outbox == null ? 0 : outbox.segmentCount();
+        for (int i = 0; i < PAYMENTS; i++) {
+            String transactionId = "TXN" + (WARMUP + i);
+            long start = System.nanoTime();
+            service.completePayment(transactionId);
+            latencies[i] = System.nanoTime() - start;
+            if (outbox != null && outbox.segmentCount() != segmentCount) {
+                segmentCount = outbox.segmentCount();
+                slowestRollNanos = Math.max(slowestRollNanos, latencies[i]);
+            }
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void report(String mode, long[] sorted) {
+        System.out.printf("%-8s %10d %10d %10d%n", mode, sorted[sorted.length / 2],
+                sorted[(int) (sorted.length * 0.99)], sorted[(int) (sorted.length * 0.999)]);
+    }
+}
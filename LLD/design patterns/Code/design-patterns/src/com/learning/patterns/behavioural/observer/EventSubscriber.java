@@ -0,0 +1,11 @@
+package com.learning.patterns.behavioural.observer;
+
+/*
+ * Typed observer for the PaymentEventBus.
+ * - Only called for the topics/statuses it subscribed to, so implementations
+ *   need no filtering of their own.
+ */
+@FunctionalInterface
+public interface EventSubscriber {
+    void onEvent(TransactionEvent event);
+}
@@ -3,10 +3,15 @@ package com.learning.patterns.behavioural.observer;
 /*
  * Observer 2: Updates merchant dashboard in real-time.
  */
-public class MerchantDashboardService implements Observer {
+public class MerchantDashboardService implements Observer, EventSubscriber {
 
     @Override
     public void update(String transactionId, String status) {
         System.out.println("💼 [Merchant Dashboard] Transaction " + transactionId + " updated with status: " + status);
     }
+
+    @Override
+    public void onEvent(TransactionEvent event) {
+        System.out.println("💼 [Merchant Dashboard] Transaction " + event.reference() + " updated with status: " + event.status());
+    }
 }
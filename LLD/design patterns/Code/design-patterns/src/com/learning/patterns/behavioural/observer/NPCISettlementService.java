@@ -1,12 +1,27 @@
 package com.learning.patterns.behavioural.observer;
 
+import java.util.List;
+
 /*
  * Observer 3: Notifies the NPCI settlement service for backend reconciliation.
+ * - Also a BatchObserver: wrapped in a BatchingObserver it submits one
+ *   settlement file per batch instead of one call per transaction.
  */
-public class NPCISettlementService implements Observer {
+public class NPCISettlementService implements Observer, EventSubscriber, BatchObserver {
 
     @Override
     public void update(String transactionId, String status) {
         System.out.println("🏦 [NPCI Settlement] Transaction " + transactionId + " sent for settlement with status: " + status);
     }
+
+    @Override
+    public void onEvent(TransactionEvent event) {
+        System.out.println("🏦 [NPCI Settlement] Transaction " + event.reference() + " sent for settlement with status: " + event.status());
+    }
+
+    @Override
+    public void onBatch(List<PaymentEvent> events) {
+        System.out.println("🏦 [NPCI Settlement] Batch of " + events.size() + " transactions sent for settlement, first "
+                + events.get(0).transactionId() + ", last " + events.get(events.size() - 1).transactionId());
+    }
 }
@@ -1,5 +1,7 @@
 package com.learning.patterns.behavioural.observer;
 
+import java.util.concurrent.TimeUnit;
+
 /*
  * Client: Demonstrates the Observer Pattern in action for UPI payment notifications.
  */
@@ -16,6 +18,26 @@ public class ObserverPatternDemo {
 
         // Complete a payment
         upiService.completePayment("TXN123456789");
+
+        // Typed event bus: each service subscribes only to the statuses it handles
+        System.out.println();
+        PaymentEventBus eventBus = upiService.getEventBus();
+        eventBus.subscribe(new UserNotificationService(), PaymentTopic.UPI, PaymentStatus.SUCCESS, PaymentStatus.FAILED);
+        eventBus.subscribe(new MerchantDashboardService(), PaymentTopic.UPI);
+        eventBus.subscribe(new NPCISettlementService(), PaymentTopic.UPI, PaymentStatus.SUCCESS);
+
+        upiService.completePayment(123456790L, 49_900);
+        upiService.failPayment(123456791L, 12_000);
+
+        // Micro-batching: settlement receives one call per batch of payments
+        System.out.println();
+        UpiPaymentService batchedService = new UpiPaymentService();
+        try (BatchingObserver settlement = new BatchingObserver(new NPCISettlementService(), 3, 50, TimeUnit.MILLISECONDS)) {
+            batchedService.registerObserver(settlement);
+            for (int i = 1; i <= 5; i++) {
+                batchedService.completePayment("TXN20000" + i);
+            }
+        }
     }
 }
 
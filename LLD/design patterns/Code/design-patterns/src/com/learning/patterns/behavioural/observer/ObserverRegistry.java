@@ -0,0 +1,70 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Copy-on-write observer registry.
+ * - Observers are kept in an immutable array snapshot behind an AtomicReference.
+ * - register/remove build a new array and publish it with a CAS, so they can
+ *   race with each other and with notification without locks or
+ *   ConcurrentModificationException.
+ * - Readers grab the current array once and loop over it by index: no lock,
+ *   no iterator, no allocation per notification.
+ */
+public final class ObserverRegistry {
+
+    private static final Observer[] EMPTY = new Observer[0];
+
+    private final AtomicReference<Observer[]> observers = new AtomicReference<>(EMPTY);
+
+    public void add(Observer observer) {
+        Observer[] current;
+        Observer[] next;
+        do {
+            current = observers.get();
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = observer;
+        } while (!observers.compareAndSet(current, next));
+    }
+
+    // Removes the first registration of this observer; returns false if it was not registered.
+    public boolean remove(Observer observer) {
+        Observer[] current;
+        Observer[] next;
+        do {
+            current = observers.get();
+            int index = indexOf(current, observer);
+            if (index < 0) {
+                return false;
+            }
+            next = new Observer[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+        } while (!observers.compareAndSet(current, next));
+        return true;
+    }
+
+    // The current snapshot. Callers must treat it as read-only.
+    Observer[] snapshot() {
+        return observers.get();
+    }
+
+    public List<Observer> list() {
+        return List.of(observers.get());
+    }
+
+    public int size() {
+        return observers.get().length;
+    }
+
+    private static int indexOf(Observer[] array, Observer observer) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].equals(observer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
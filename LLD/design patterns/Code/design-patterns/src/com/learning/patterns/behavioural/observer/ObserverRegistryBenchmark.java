@@ -0,0 +1,129 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/*
+ * Notification cost: ArrayList vs CopyOnWriteArrayList vs ObserverRegistry.
+ * - Cheap counting observers isolate the dispatch loop itself.
+ * - Reports ns per notify and bytes allocated per notify (via the HotSpot
+ *   per-thread allocation counter) at typical observer counts.
+ * - A churn run then registers/removes observers from a second thread while
+ *   notifying, to show which registries survive concurrent modification.
+ */
+public class ObserverRegistryBenchmark {
+
+    private static final int NOTIFICATIONS = 2_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.printf("%-9s %-22s %12s %14s%n", "observers", "registry", "ns/notify", "bytes/notify");
+        for (int count : new int[]{1, 3, 10, 30}) {
+            List<Observer> arrayList = new ArrayList<>();
+            List<Observer> copyOnWrite = new CopyOnWriteArrayList<>();
+            ObserverRegistry registry = new ObserverRegistry();
+            for (int i = 0; i < count; i++) {
+                Observer observer = new CountingObserver();
+                arrayList.add(observer);
+                copyOnWrite.add(observer);
+                registry.add(observer);
+            }
+            run(count, "ArrayList", () -> {
+                for (Observer observer : arrayList) {
+                    observer.update("TXN", "SUCCESS");
+                }
+            });
+            run(count, "CopyOnWriteArrayList", () -> {
+                for (Observer observer : copyOnWrite) {
+                    observer.update("TXN", "SUCCESS");
+                }
+            });
+            run(count, "ObserverRegistry", () -> {
+                Observer[] snapshot = registry.snapshot();
+                for (int i = 0; i < snapshot.length; i++) {
+                    snapshot[i].update("TXN", "SUCCESS");
+                }
+            });
+        }
+
+        System.out.println();
+        UpiPaymentService service = new UpiPaymentService();
+        List<Observer> plainList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Observer observer = new CountingObserver();
+            service.registerObserver(observer);
+            plainList.add(observer);
+        }
+        churn("ArrayList", plainList::add, plainList::remove, () -> {
+            for (Observer observer : plainList) {
+                observer.update("TXN", "SUCCESS");
+            }
+        });
+        churn("ObserverRegistry", service::registerObserver, service::removeObserver,
+                () -> service.notifyObservers("TXN", "SUCCESS"));
+    }
+
+    // Notifies for a fixed time while another thread keeps adding and removing an observer.
+    private static void churn(String name, Consumer<Observer> add, Consumer<Observer> remove, Runnable notifyOnce) {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread mutator = new Thread(() -> {
+            Observer extra = new CountingObserver();
+            while (running.get()) {
+                add.accept(extra);
+                remove.accept(extra);
+            }
+        });
+        mutator.start();
+        long notifications = 0;
+        String outcome = "ok";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        try {
+            while (System.nanoTime() < deadline) {
+                notifyOnce.run();
+                notifications++;
+            }
+        } catch (ConcurrentModificationException e) {
+            outcome = "ConcurrentModificationException";
+        } finally {
+            running.set(false);
+        }
+        try {
+            mutator.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.printf("churn %-18s %,12d notifications -> %s%n", name, notifications, outcome);
+    }
+
+    private static void run(int count, String name, Runnable notifyOnce) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bestNanos = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < NOTIFICATIONS; i++) {
+                notifyOnce.run();
+            }
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            allocated = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        }
+        System.out.printf("%-9d %-22s %12.2f %14.2f%n", count, name,
+                (double) bestNanos / NOTIFICATIONS, (double) allocated / NOTIFICATIONS);
+    }
+
+    static class CountingObserver implements Observer {
+        long updates;
+
+        @Override
+        public void update(String transactionId, String status) {
+            updates++;
+        }
+    }
+}
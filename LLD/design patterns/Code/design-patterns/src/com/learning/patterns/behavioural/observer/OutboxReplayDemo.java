@@ -0,0 +1,58 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Client: EventOutbox redelivering notifications after a failure.
+ * - Run 1: the user notification service goes down after the first payment, so
+ *   its cursor stops there while the merchant dashboard keeps up.
+ * - Run 2 ("after restart"): reopening the outbox and subscribing under the same
+ *   names replays exactly the events each observer had not acknowledged.
+ */
+public class OutboxReplayDemo {
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("upi-outbox");
+
+        System.out.println("--- Run 1 ---");
+        try (EventOutbox outbox = EventOutbox.open(directory)) {
+            UpiPaymentService upiService = new UpiPaymentService();
+            upiService.registerObserver(outbox);
+            outbox.subscribe("merchant-dashboard", new MerchantDashboardService());
+            outbox.subscribe("user-notification", new FlakyObserver(new UserNotificationService(), 1));
+
+            upiService.completePayment("TXN300001");
+            upiService.completePayment("TXN300002");
+            upiService.completePayment("TXN300003");
+        }
+
+        System.out.println();
+        System.out.println("--- Run 2 (after restart) ---");
+        try (EventOutbox outbox = EventOutbox.open(directory)) {
+            long merchant = outbox.subscribe("merchant-dashboard", new MerchantDashboardService());
+            long user = outbox.subscribe("user-notification", new UserNotificationService());
+            System.out.println("Replayed: merchant-dashboard=" + merchant + ", user-notification=" + user);
+        }
+    }
+
+    // Delegates the first `healthy` events, then fails every call.
+    static class FlakyObserver implements Observer {
+        private final Observer delegate;
+        private int remaining;
+
+        FlakyObserver(Observer delegate, int healthy) {
+            this.delegate = delegate;
+            this.remaining = healthy;
+        }
+
+        @Override
+        public void update(String transactionId, String status) {
+            if (remaining-- <= 0) {
+                throw new IllegalStateException("service unavailable");
+            }
+            delegate.update(transactionId, status);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.learning.patterns.behavioural.observer;
+
+/*
+ * One observer notification, as queued by AsyncObserver.
+ */
+public record PaymentEvent(String transactionId, String status) {
+}
@@ -0,0 +1,136 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Typed, topic-filtered event bus
+ * - Subscribers register with a set of topics and statuses. The filter is
+ *   evaluated once, at registration, into a route table with one subscriber
+ *   array per (topic, status) pair.
+ * - publish() is a single array lookup followed by an indexed loop: no string
+ *   comparison, no per-subscriber filtering, and nothing is allocated when no
+ *   one is subscribed to the pair.
+ * - The route table is rebuilt on (un)subscribe and published through a
+ *   volatile field, so publishing never locks and is safe while subscriptions
+ *   change (same copy-on-write idea as ObserverRegistry).
+ */
+public final class PaymentEventBus {
+
+    private static final PaymentTopic[] TOPICS = PaymentTopic.values();
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final EventSubscriber[] NONE = new EventSubscriber[0];
+
+    private final List<Subscription> subscriptions = new ArrayList<>(); // guarded by this
+    private volatile EventSubscriber[][] routes = emptyRoutes();
+
+    public Subscription subscribe(EventSubscriber subscriber, PaymentTopic topic, PaymentStatus... statuses) {
+        Set<PaymentStatus> statusSet = statuses.length == 0
+                ? EnumSet.allOf(PaymentStatus.class)
+                : EnumSet.copyOf(Arrays.asList(statuses));
+        return subscribe(subscriber, EnumSet.of(topic), statusSet);
+    }
+
+    public Subscription subscribeAll(EventSubscriber subscriber) {
+        return subscribe(subscriber, EnumSet.allOf(PaymentTopic.class), EnumSet.allOf(PaymentStatus.class));
+    }
+
+    public synchronized Subscription subscribe(EventSubscriber subscriber, Set<PaymentTopic> topics, Set<PaymentStatus> statuses) {
+        if (topics.isEmpty() || statuses.isEmpty()) {
+            throw new IllegalArgumentException("Subscription must name at least one topic and one status");
+        }
+        Subscription subscription = new Subscription(subscriber, EnumSet.copyOf(topics), EnumSet.copyOf(statuses));
+        subscriptions.add(subscription);
+        rebuildRoutes();
+        return subscription;
+    }
+
+    public void publish(PaymentTopic topic, PaymentStatus status, long transactionId, long amountMinor) {
+        EventSubscriber[] targets = routes[index(topic, status)];
+        if (targets.length == 0) {
+            return;
+        }
+        TransactionEvent event = new TransactionEvent(topic, status, transactionId, amountMinor);
+        for (int i = 0; i < targets.length; i++) {
+            targets[i].onEvent(event);
+        }
+    }
+
+    public void publish(TransactionEvent event) {
+        EventSubscriber[] targets = routes[index(event.topic(), event.status())];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i].onEvent(event);
+        }
+    }
+
+    public int subscriberCount(PaymentTopic topic, PaymentStatus status) {
+        return routes[index(topic, status)].length;
+    }
+
+    // Lets an existing String-based Observer receive typed events during migration.
+    public static EventSubscriber adapt(Observer observer) {
+        return event -> observer.update(event.reference(), event.status().name());
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            rebuildRoutes();
+        }
+    }
+
+    private void rebuildRoutes() {
+        EventSubscriber[][] next = emptyRoutes();
+        for (PaymentTopic topic : TOPICS) {
+            for (PaymentStatus status : STATUSES) {
+                List<EventSubscriber> matching = new ArrayList<>();
+                for (Subscription subscription : subscriptions) {
+                    if (subscription.topics.contains(topic) && subscription.statuses.contains(status)) {
+                        matching.add(subscription.subscriber);
+                    }
+                }
+                if (!matching.isEmpty()) {
+                    next[index(topic, status)] = matching.toArray(NONE);
+                }
+            }
+        }
+        routes = next;
+    }
+
+    private static EventSubscriber[][] emptyRoutes() {
+        EventSubscriber[][] empty = new EventSubscriber[TOPICS.length * STATUSES.length][];
+        Arrays.fill(empty, NONE);
+        return empty;
+    }
+
+    private static int index(PaymentTopic topic, PaymentStatus status) {
+        return topic.ordinal() * STATUSES.length + status.ordinal();
+    }
+
+    /*
+     * Handle returned by subscribe(); close() or cancel() removes the subscriber.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final EventSubscriber subscriber;
+        private final Set<PaymentTopic> topics;
+        private final Set<PaymentStatus> statuses;
+
+        private Subscription(EventSubscriber subscriber, Set<PaymentTopic> topics, Set<PaymentStatus> statuses) {
+            this.subscriber = subscriber;
+            this.topics = topics;
+            this.statuses = statuses;
+        }
+
+        public void cancel() {
+            unsubscribe(this);
+        }
+
+        @Override
+        public void close() {
+            cancel();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.learning.patterns.behavioural.observer;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/*
+ * String Observer fan-out vs typed PaymentEventBus.
+ * - 10 subscribers, each interested in a subset of statuses, and a realistic
+ *   status mix (mostly SUCCESS).
+ * - Legacy: every observer gets every event and string-compares the status;
+ *   the publisher renders "TXN" + id for each event.
+ * - Bus: filters are resolved at registration, so only interested
+ *   subscribers are called, with a numeric id.
+ * - Reports ns and bytes allocated per published event, and the CPU share
+ *   that would mean at 100k events/s.
+ */
+public class PaymentEventBusBenchmark {
+
+    private static final int SUBSCRIBERS = 10;
+    private static final int EVENTS = 2_000_000;
+    private static final int ROUNDS = 5;
+    private static final String[] STATUS_NAMES = {"INITIATED", "PENDING", "SUCCESS", "FAILED", "REVERSED"};
+
+    public static void main(String[] args) {
+        // Status ordinals: 80% SUCCESS, 10% FAILED, 5% PENDING, 5% REVERSED
+        Random random = new Random(42);
+        int[] statuses = new int[1 << 16];
+        for (int i = 0; i < statuses.length; i++) {
+            int roll = random.nextInt(100);
+            statuses[i] = roll < 80 ? 2 : roll < 90 ? 3 : roll < 95 ? 1 : 4;
+        }
+
+        UpiPaymentService legacy = new UpiPaymentService();
+        PaymentEventBus bus = new PaymentEventBus();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            // Subscriber i cares about one status; spread across SUCCESS, FAILED, REVERSED
+            String wanted = STATUS_NAMES[2 + i % 3];
+            legacy.registerObserver(new FilteringObserver(wanted));
+            bus.subscribe(new CountingSubscriber(), PaymentTopic.UPI, PaymentStatus.valueOf(wanted));
+        }
+
+        PaymentStatus[] statusValues = PaymentStatus.values();
+        double legacyNanos = run("String Observer", () -> {
+            for (int i = 0; i < EVENTS; i++) {
+                legacy.notifyObservers("TXN" + i, STATUS_NAMES[statuses[i & (statuses.length - 1)]]);
+            }
+        });
+        double busNanos = run("PaymentEventBus", () -> {
+            for (int i = 0; i < EVENTS; i++) {
+                bus.publish(PaymentTopic.UPI, statusValues[statuses[i & (statuses.length - 1)]], i, 10_000);
+            }
+        });
+        System.out.printf("%nAt 100k events/s: String Observer %.2f%% of a core, PaymentEventBus %.2f%%%n",
+                legacyNanos * 100_000 / 1e9 * 100, busNanos * 100_000 / 1e9 * 100);
+    }
+
+    private static double run(String name, Runnable publishAll) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bestNanos = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            publishAll.run();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            allocated = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        }
+        double nanosPerEvent = (double) bestNanos / EVENTS;
+        System.out.printf("%-16s %8.2f ns/event %8.2f bytes/event%n", name, nanosPerEvent, (double) allocated / EVENTS);
+        return nanosPerEvent;
+    }
+
+    static class FilteringObserver implements Observer {
+        private final String wanted;
+        long handled;
+
+        FilteringObserver(String wanted) {
+            this.wanted = wanted;
+        }
+
+        @Override
+        public void update(String transactionId, String status) {
+            if (wanted.equals(status)) {
+                handled += transactionId.length();
+            }
+        }
+    }
+
+    static class CountingSubscriber implements EventSubscriber {
+        long handled;
+
+        @Override
+        public void onEvent(TransactionEvent event) {
+            handled += event.transactionId();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.learning.patterns.behavioural.observer;
+
+/*
+ * Typed payment status for the PaymentEventBus.
+ * - Replaces the free-form status String of Observer.update, so subscribers
+ *   switch on an enum instead of string-comparing every event.
+ */
+public enum PaymentStatus {
+    INITIATED,
+    PENDING,
+    SUCCESS,
+    FAILED,
+    REVERSED
+}
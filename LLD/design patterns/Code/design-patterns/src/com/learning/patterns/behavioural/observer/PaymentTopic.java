@@ -0,0 +1,12 @@
+package com.learning.patterns.behavioural.observer;
+
+/*
+ * Topic (payment rail) an event is published on.
+ * - Subscribers pick topics and statuses once, at registration.
+ */
+public enum PaymentTopic {
+    UPI,
+    CARD,
+    NET_BANKING,
+    WALLET
+}
@@ -0,0 +1,17 @@
+package com.learning.patterns.behavioural.observer;
+
+/*
+ * Compact typed event delivered by the PaymentEventBus.
+ * - Numeric transaction id and amount (minor units) instead of Strings.
+ * - Topic and status are enum constants, i.e. shared flyweights: the only
+ *   per-event object is this record, and one instance is shared by every
+ *   subscriber that receives it.
+ * - Immutable, so a subscriber may keep it or hand it to another thread.
+ */
+public record TransactionEvent(PaymentTopic topic, PaymentStatus status, long transactionId, long amountMinor) {
+
+    // Display form used by the legacy String-based observers, e.g. "TXN123456789".
+    public String reference() {
+        return "TXN" + transactionId;
+    }
+}
@@ -1,17 +1,30 @@
 package com.learning.patterns.behavioural.observer;
 
-
-import java.util.ArrayList;
-import java.util.List;
-
 /*
  * Concrete Subject
  * - Represents the UPI Payment Service.
  * - Notifies all registered observers when a payment is completed.
+ * - Observers live in a copy-on-write ObserverRegistry, so registering or
+ *   removing an observer while payments are being notified is safe.
+ * - Typed subscribers use the PaymentEventBus instead: completePayment(long, long)
+ *   publishes a TransactionEvent on the UPI topic.
  */
 public class UpiPaymentService implements Subject {
 
-    private final List<Observer> observers = new ArrayList<>();
+    private final ObserverRegistry observers = new ObserverRegistry();
+    private final PaymentEventBus eventBus;
+
+    public UpiPaymentService() {
+        this(new PaymentEventBus());
+    }
+
+    public UpiPaymentService(PaymentEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    public PaymentEventBus getEventBus() {
+        return eventBus;
+    }
 
     @Override
     public void registerObserver(Observer observer) {
@@ -25,8 +38,9 @@ public class UpiPaymentService implements Subject {
 
     @Override
     public void notifyObservers(String transactionId, String status) {
-        for (Observer observer : observers) {
-            observer.update(transactionId, status);
+        Observer[] snapshot = observers.snapshot();
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i].update(transactionId, status);
         }
     }
 
@@ -34,5 +48,14 @@ public class UpiPaymentService implements Subject {
         System.out.println("💳 Payment successful for Transaction ID: " + transactionId);
         notifyObservers(transactionId, "SUCCESS");
     }
-}
 
+    public void completePayment(long transactionId, long amountMinor) {
+        System.out.println("💳 Payment successful for Transaction ID: TXN" + transactionId);
+        eventBus.publish(PaymentTopic.UPI, PaymentStatus.SUCCESS, transactionId, amountMinor);
+    }
+
+    public void failPayment(long transactionId, long amountMinor) {
+        System.out.println("❌ Payment failed for Transaction ID: TXN" + transactionId);
+        eventBus.publish(PaymentTopic.UPI, PaymentStatus.FAILED, transactionId, amountMinor);
+    }
+}
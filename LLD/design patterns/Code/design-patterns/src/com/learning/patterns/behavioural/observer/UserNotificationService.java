@@ -4,11 +4,15 @@ package com.learning.patterns.behavioural.observer;
 /*
  * Observer 1: Sends payment confirmation to user via SMS or app.
  */
-public class UserNotificationService implements Observer {
+public class UserNotificationService implements Observer, EventSubscriber {
 
     @Override
     public void update(String transactionId, String status) {
         System.out.println("📱 [User Notification] Transaction " + transactionId + " status: " + status);
     }
-}
 
+    @Override
+    public void onEvent(TransactionEvent event) {
+        System.out.println("📱 [User Notification] Transaction " + event.reference() + " status: " + event.status());
+    }
+}
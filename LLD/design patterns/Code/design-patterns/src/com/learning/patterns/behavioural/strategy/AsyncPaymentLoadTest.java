@@ -0,0 +1,82 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * How many payments can be in flight at once in each execution model.
+ * - Every payment takes 1 s on a SimulatedRail, so in-flight count, not CPU,
+ *   is the limit.
+ * - platform pool : blocking PaymentStrategy on a fixed pool of 200 platform
+ *                   threads (the thread budget), via AsyncPaymentStrategy.on().
+ * - virtual       : the same blocking strategy via onVirtualThreads().
+ * - future        : non-blocking SimulatedRail.submitAsync(); no thread waits.
+ * - For each offered load: wall time, peak payments on the rail at once, live
+ *   heap per pending payment (after a GC while they are still pending) and
+ *   live threads.
+ * - Run with a fixed heap, e.g. -Xmx512m, to compare models on the same budget.
+ */
+public class AsyncPaymentLoadTest {
+
+    private static final int THREAD_BUDGET = 200;
+    private static final long LATENCY_MILLIS = 1_000;
+    private static final int PLATFORM_MAX_LOAD = 1_000; // 10k payments would take 50 s on 200 threads
+
+    public static void main(String[] args) {
+        SimulatedRail rail = new SimulatedRail("UPI", LATENCY_MILLIS, TimeUnit.MILLISECONDS);
+        System.out.printf("max heap %d MB, %d-thread budget for the platform pool, %d ms per payment%n%n",
+                Runtime.getRuntime().maxMemory() >> 20, THREAD_BUDGET, LATENCY_MILLIS);
+        System.out.printf("%-15s %9s %10s %11s %14s %9s%n", "model", "payments", "wall ms", "peak", "bytes/pending", "threads");
+        for (int load : new int[]{1_000, 10_000, 100_000}) {
+            if (load <= PLATFORM_MAX_LOAD) {
+                try (ExecutorService pool = Executors.newFixedThreadPool(THREAD_BUDGET)) {
+                    run("platform pool", load, rail, AsyncPaymentStrategy.on(blocking(rail), pool));
+                }
+            }
+            run("virtual", load, rail, AsyncPaymentStrategy.onVirtualThreads(blocking(rail)));
+            run("future", load, rail, amount -> {
+                long transactionId = SnowflakeIdGenerator.shared().nextId();
+                return rail.submitAsync(transactionId, amount).thenApply(ignored -> transactionId);
+            });
+            System.out.println();
+        }
+    }
+
+    private static PaymentStrategy blocking(SimulatedRail rail) {
+        return amount -> {
+            long transactionId = SnowflakeIdGenerator.shared().nextId();
+            rail.submit(transactionId, amount);
+            return transactionId;
+        };
+    }
+
+    private static void run(String model, int load, SimulatedRail rail, AsyncPaymentStrategy strategy) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        rail.resetPeak();
+        CompletableFuture<?>[] payments = new CompletableFuture<?>[load];
+        long start = System.nanoTime();
+        for (int i = 0; i < load; i++) {
+            payments[i] = strategy.payAsync(100);
+        }
+        // Sample live heap and threads while the payments are still pending
+        System.gc();
+        long heapUsed = Math.max(0, memory.getHeapMemoryUsage().getUsed() - heapBefore);
+        int pending = 0;
+        for (CompletableFuture<?> payment : payments) {
+            if (!payment.isDone()) {
+                pending++;
+            }
+        }
+        int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+        CompletableFuture.allOf(payments).join();
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%-15s %,9d %,10d %,11d %,14d %9d%n", model, load, wallMillis,
+                rail.peakInFlight(), pending == 0 ? 0 : heapUsed / pending, threads);
+    }
+}
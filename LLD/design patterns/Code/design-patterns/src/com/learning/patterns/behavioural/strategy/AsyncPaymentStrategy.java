@@ -0,0 +1,48 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/*
+ * Asynchronous Strategy Interface
+ * - payAsync() returns at once; the future completes with the 64-bit transaction
+ *   id, or exceptionally if the payment failed. No thread is held while a truly
+ *   non-blocking implementation waits on the network.
+ * - Bridges:
+ *   - on(strategy, executor) / onVirtualThreads(strategy) run an existing
+ *     blocking PaymentStrategy asynchronously.
+ *   - blocking() turns any async strategy back into a PaymentStrategy.
+ */
+@FunctionalInterface
+public interface AsyncPaymentStrategy {
+
+    CompletableFuture<Long> payAsync(double amount);
+
+    default CompletableFuture<String> makePaymentAsync(double amount) {
+        return payAsync(amount).thenApply(TransactionIds::format);
+    }
+
+    // Blocking view: waits for the future and rethrows the payment's own exception.
+    default PaymentStrategy blocking() {
+        return amount -> {
+            try {
+                return payAsync(amount).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        };
+    }
+
+    static AsyncPaymentStrategy on(PaymentStrategy strategy, Executor executor) {
+        return amount -> CompletableFuture.supplyAsync(() -> strategy.pay(amount), executor);
+    }
+
+    // One virtual thread per payment: the sync code blocks, but only a cheap virtual thread.
+    static AsyncPaymentStrategy onVirtualThreads(PaymentStrategy strategy) {
+        return on(strategy, task -> Thread.ofVirtual().name("payment").start(task));
+    }
+}
@@ -1,17 +1,16 @@
 package com.learning.patterns.behavioural.strategy;
 
-import java.util.UUID;
-
 /*
  * Concrete Strategy: Credit Card Payment
  * - Implements PaymentStrategy interface
  * - Provides specific logic for credit card payments
+ * - Stateless, so PaymentStrategyFactory shares one instance
  */
 public class CreditCardPaymentStrategy implements PaymentStrategy {
 
     @Override
-    public String makePayment(double amount) {
+    public long pay(double amount) {
         IO.println("Making credit card payment of amount: " + amount);
-        return UUID.randomUUID().toString(); // Simulated transaction ID
+        return SnowflakeIdGenerator.shared().nextId();
     }
 }
@@ -1,17 +1,16 @@
 package com.learning.patterns.behavioural.strategy;
 
-import java.util.UUID;
-
 /*
  * Concrete Strategy: Debit Card Payment
  * - Implements PaymentStrategy interface
  * - Provides specific logic for debit card payments
+ * - Stateless, so PaymentStrategyFactory shares one instance
  */
 public class DebitCardPaymentStrategy implements PaymentStrategy {
 
     @Override
-    public String makePayment(double amount) {
+    public long pay(double amount) {
         IO.println("Making debit card payment of amount: " + amount);
-        return UUID.randomUUID().toString();
+        return SnowflakeIdGenerator.shared().nextId();
     }
 }
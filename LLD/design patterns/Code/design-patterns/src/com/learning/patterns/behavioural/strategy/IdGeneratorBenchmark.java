@@ -0,0 +1,159 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Checks and measures SnowflakeIdGenerator.
+ * - Uniqueness: several threads draw IDs concurrently, once with the real clock
+ *   and once with a clock that keeps jumping backwards. Every ID must be unique
+ *   and increasing per thread, and base-32 text must round-trip and sort like
+ *   the numbers. Exits with status 1 on any violation.
+ * - Throughput: IDs per second for UUID.randomUUID() and for the generator
+ *   with and without thread-local blocks, on 1 and several threads. The
+ *   generator is capped at 4096 IDs per millisecond per node by its layout.
+ * - Virtual threads: VIRTUAL_THREADS threads that each draw one ID, the
+ *   thread-per-payment shape. Blocks would waste 31 of every 32 values here.
+ */
+public class IdGeneratorBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250_000;
+    private static final int OPERATIONS = 2_000_000;
+    private static final int VIRTUAL_THREADS = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean ok = checkUnique("real clock", new SnowflakeIdGenerator(1));
+        // Clock that steps back 3 ms every 1000 reads
+        AtomicLong reads = new AtomicLong();
+        LongSupplier jumpy = () -> System.currentTimeMillis() - (reads.incrementAndGet() / 1000 % 2) * 3;
+        ok &= checkUnique("rolling-back clock", new SnowflakeIdGenerator(1, 32, 1000, jumpy));
+        ok &= checkText(new SnowflakeIdGenerator(1));
+        if (!ok) {
+            System.exit(1);
+        }
+
+        SnowflakeIdGenerator blocks = new SnowflakeIdGenerator(2);
+        SnowflakeIdGenerator noBlocks = new SnowflakeIdGenerator(3, 1);
+        String[] names = {"UUID.randomUUID()", "UUID.randomUUID().toString()", "Snowflake, no blocks",
+                "Snowflake, blocks", "Snowflake, blocks + base-32"};
+        LongSupplier[] variants = {
+                () -> UUID.randomUUID().getLeastSignificantBits(),
+                () -> UUID.randomUUID().toString().length(),
+                noBlocks::nextId,
+                blocks::nextId,
+                () -> blocks.nextIdString().length()
+        };
+        System.out.printf("%n%-30s %16s %16s%n", "ids/s", "1 thread", THREADS + " threads");
+        for (int i = 0; i < variants.length; i++) {
+            throughput(variants[i], 1); // warm-up
+            System.out.printf("%-30s %,16.0f %,16.0f%n", names[i], throughput(variants[i], 1), throughput(variants[i], THREADS));
+        }
+
+        System.out.printf("%n%-30s %16s %16s%n", "one id per virtual thread", "ms", "duplicates");
+        for (int round = 0; round < 2; round++) { // the first round warms up
+            virtualThreads("Snowflake, no blocks", new SnowflakeIdGenerator(4, 1), round == 1);
+            virtualThreads("Snowflake, default blocks", new SnowflakeIdGenerator(5), round == 1);
+        }
+    }
+
+    private static void virtualThreads(String name, SnowflakeIdGenerator generator, boolean print) throws InterruptedException {
+        long[] ids = new long[VIRTUAL_THREADS];
+        Thread[] threads = new Thread[VIRTUAL_THREADS];
+        long start = System.nanoTime();
+        for (int i = 0; i < VIRTUAL_THREADS; i++) {
+            int slot = i;
+            threads[i] = Thread.ofVirtual().start(() -> ids[slot] = generator.nextId());
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(ids);
+        int duplicates = 0;
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] == ids[i - 1]) {
+                duplicates++;
+            }
+        }
+        if (print) {
+            System.out.printf("%-30s %,16.1f %,16d%n", name, elapsed / 1e6, duplicates);
+        }
+    }
+
+    private static boolean checkUnique(String name, SnowflakeIdGenerator generator) throws InterruptedException {
+        long[][] perThread = new long[THREADS][IDS_PER_THREAD];
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            long[] ids = perThread[t];
+            threads[t] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+            });
+        }
+        boolean ok = true;
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t].join();
+            long[] ids = perThread[t];
+            for (int i = 1; i < ids.length; i++) {
+                if (ids[i] <= ids[i - 1]) {
+                    System.out.println(name + ": thread " + t + " went backwards at index " + i);
+                    ok = false;
+                    break;
+                }
+            }
+            System.arraycopy(ids, 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        Arrays.sort(all);
+        int duplicates = 0;
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                duplicates++;
+            }
+        }
+        long spanMillis = SnowflakeIdGenerator.timestampMillis(all[all.length - 1]) - SnowflakeIdGenerator.timestampMillis(all[0]);
+        System.out.printf("%-20s %,d ids from %d threads, %d duplicates, span %d ms%n", name + ":", all.length, THREADS, duplicates, spanMillis);
+        return ok && duplicates == 0;
+    }
+
+    private static boolean checkText(SnowflakeIdGenerator generator) {
+        long previous = generator.nextId();
+        String previousText = TransactionIds.format(previous);
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            String text = TransactionIds.format(id);
+            if (TransactionIds.parse(text) != id || TransactionIds.parse(text.toLowerCase()) != id
+                    || text.compareTo(previousText) <= 0) {
+                System.out.println("base-32 check failed for " + id + " (" + text + ")");
+                return false;
+            }
+            previousText = text;
+        }
+        System.out.println("base-32:             round-trip and ordering ok, e.g. " + previousText);
+        return true;
+    }
+
+    private static double throughput(LongSupplier operation, int threadCount) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(threadCount);
+        long[] sinks = new long[threadCount];
+        long start = System.nanoTime();
+        for (int t = 0; t < threadCount; t++) {
+            int slot = t;
+            Thread.ofPlatform().start(() -> {
+                long sink = 0;
+                for (int i = 0; i < OPERATIONS / threadCount; i++) {
+                    sink += operation.getAsLong();
+                }
+                sinks[slot] = sink;
+                done.countDown();
+            });
+        }
+        done.await();
+        return OPERATIONS / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,14 @@
+package com.learning.patterns.behavioural.strategy;
+
+/*
+ * One route a payment can be sent over (e.g. a UPI PSP bank or a card acquirer).
+ * - submit() blocks until the rail has accepted the payment and throws on failure.
+ * - The transaction id is the idempotency key: RoutingPaymentStrategy may submit
+ *   the same payment to two rails (hedging), and the switch behind them must
+ *   settle it only once.
+ */
+public interface PaymentRail {
+    String name();
+
+    void submit(long transactionId, double amount);
+}
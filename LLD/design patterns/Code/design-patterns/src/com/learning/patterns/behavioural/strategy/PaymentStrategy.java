@@ -4,7 +4,13 @@ package com.learning.patterns.behavioural.strategy;
  * Strategy Interface
  * - Defines the contract for all payment strategies.
  * - Each payment strategy must implement this interface.
+ * - pay() returns the 64-bit transaction id; makePayment() renders it as text
+ *   (TransactionIds) for callers that need a String.
  */
 public interface PaymentStrategy {
-    String makePayment(double amount);
+    long pay(double amount);
+
+    default String makePayment(double amount) {
+        return TransactionIds.format(pay(amount));
+    }
 }
@@ -0,0 +1,89 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+/*
+ * Per-payment cost of the strategy lookup + transaction ID.
+ * - legacy : a new strategy per call and UUID.randomUUID() (SecureRandom).
+ * - shared : PaymentStrategyFactory singletons and SnowflakeIdGenerator.
+ * - Console output is discarded; both variants print the same line, so the
+ *   difference is the allocation and ID cost.
+ * - Reports ns and bytes allocated per payment on one thread, then throughput
+ *   with several threads to show UUID's SecureRandom contention.
+ */
+public class PaymentStrategyBenchmark {
+
+    private static final int PAYMENTS = 1_000_000;
+    private static final int ROUNDS = 5;
+    private static final int THREADS = 4;
+
+    public static void main(String[] args) throws InterruptedException {
+        PrintStream console = System.out;
+        Runnable legacy = () -> new LegacyUpiPaymentStrategy().makePayment(5000);
+        Runnable shared = () -> PaymentStrategyFactory.getPaymentStrategy(PaymentType.UPI).makePayment(5000);
+        Runnable uuidOnly = () -> UUID.randomUUID().toString();
+        Runnable snowflakeOnly = () -> SnowflakeIdGenerator.shared().nextIdString();
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            String[] names = {"legacy payment", "shared payment", "UUID id only", "Snowflake id only"};
+            Runnable[] variants = {legacy, shared, uuidOnly, snowflakeOnly};
+            String[] lines = new String[variants.length];
+            for (int i = 0; i < variants.length; i++) {
+                lines[i] = measure(names[i], variants[i]);
+            }
+            for (int i = 0; i < variants.length; i++) {
+                lines[i] += String.format(" %,14.0f", throughput(variants[i]));
+            }
+            System.setOut(console);
+            System.out.printf("%-18s %10s %12s %14s%n", "variant", "ns/op", "bytes/op", THREADS + "-thread ops/s");
+            for (String line : lines) {
+                System.out.println(line);
+            }
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static String measure(String name, Runnable payment) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bestNanos = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < PAYMENTS; i++) {
+                payment.run();
+            }
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            allocated = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        }
+        return String.format("%-18s %10.1f %12.1f", name, (double) bestNanos / PAYMENTS, (double) allocated / PAYMENTS);
+    }
+
+    private static double throughput(Runnable payment) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(THREADS);
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < PAYMENTS; i++) {
+                    payment.run();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        return (double) THREADS * PAYMENTS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    // The strategy as it was before: a fresh instance per payment and a random UUID.
+    static class LegacyUpiPaymentStrategy {
+        String makePayment(double amount) {
+            IO.println("Making UPI payment of amount: " + amount);
+            return UUID.randomUUID().toString();
+        }
+    }
+}
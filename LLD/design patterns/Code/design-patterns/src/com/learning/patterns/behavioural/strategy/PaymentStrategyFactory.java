@@ -1,16 +1,40 @@
 package com.learning.patterns.behavioural.strategy;
 
+import java.util.Arrays;
+
 /*
  * Factory class to return appropriate PaymentStrategy
  * based on the selected PaymentType
+ * - Strategies are stateless, so one shared instance per type is kept in an
+ *   array indexed by PaymentType.ordinal(); lookup allocates nothing.
+ * - register() plugs in (or replaces) the strategy for a type without editing
+ *   this class. The table is copied on write and published through a volatile
+ *   field, so lookups never lock.
  */
 public class PaymentStrategyFactory {
 
+    private static volatile PaymentStrategy[] strategies = new PaymentStrategy[PaymentType.values().length];
+
+    static {
+        register(PaymentType.CREDIT, new CreditCardPaymentStrategy());
+        register(PaymentType.DEBIT, new DebitCardPaymentStrategy());
+        register(PaymentType.UPI, new UPIPaymentStrategy());
+    }
+
     public static PaymentStrategy getPaymentStrategy(PaymentType paymentType) {
-        return switch (paymentType) {
-            case CREDIT -> new CreditCardPaymentStrategy();
-            case DEBIT -> new DebitCardPaymentStrategy();
-            case UPI -> new UPIPaymentStrategy();
-        };
+        PaymentStrategy strategy = strategies[paymentType.ordinal()];
+        if (strategy == null) {
+            throw new IllegalArgumentException("No payment strategy registered for " + paymentType);
+        }
+        return strategy;
+    }
+
+    // Returns the strategy previously registered for the type, or null.
+    public static synchronized PaymentStrategy register(PaymentType paymentType, PaymentStrategy strategy) {
+        PaymentStrategy[] next = Arrays.copyOf(strategies, strategies.length);
+        PaymentStrategy previous = next[paymentType.ordinal()];
+        next[paymentType.ordinal()] = strategy;
+        strategies = next;
+        return previous;
     }
 }
@@ -3,9 +3,12 @@ package com.learning.patterns.behavioural.strategy;
 /*
  * Enum to represent supported payment types
  * - Used to decide which PaymentStrategy to use
+ * - NET_BANKING has no built-in strategy; one is plugged in with
+ *   PaymentStrategyFactory.register()
  */
 public enum PaymentType {
     CREDIT,
     DEBIT,
-    UPI
+    UPI,
+    NET_BANKING
 }
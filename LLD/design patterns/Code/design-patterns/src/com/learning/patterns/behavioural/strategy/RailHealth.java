@@ -0,0 +1,182 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * RailHealth:
+ * Latency/error tracking and circuit breaker for one PaymentRail.
+ * - Latency and error rate are EWMAs kept as double bits in AtomicLongs and
+ *   updated with a CAS, so recording from many payment threads never locks.
+ *   Successful and failed attempts have separate latency EWMAs, so a rail that
+ *   fails fast does not look fast.
+ * - score() is the expected cost of sending a payment here: the success
+ *   latency, or on failure the time lost plus the cost of retrying elsewhere.
+ *   loadedScore() multiplies it by the attempts in flight + 1, so a rail that
+ *   just received a burst looks busier immediately, long before its EWMA moves.
+ * - Breaker: CLOSED -> OPEN when the error EWMA crosses the threshold (after a
+ *   minimum number of calls); OPEN -> HALF_OPEN after the cool-down, letting a
+ *   single probe through; the probe closes the breaker again or re-opens it.
+ *   Only the probe's own outcome decides: tryAcquire() hands out PROBE, and a
+ *   result recorded with any other permit (e.g. a slow hedge started before
+ *   the breaker opened) leaves HALF_OPEN alone. A probe that never runs is
+ *   handed back with abandon().
+ */
+public final class RailHealth {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    static final double ALPHA = 0.1;
+    static final double FAILURE_THRESHOLD = 0.5;
+    static final int MIN_CALLS = 20;
+
+    // tryAcquire() results
+    static final int DENIED = 0;
+    static final int ACQUIRED = 1;
+    static final int PROBE = 2;
+
+    private final PaymentRail rail;
+    private final long coolDownNanos;
+    private final AtomicLong latencyEwmaBits = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicLong failureLatencyEwmaBits = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicLong errorEwmaBits = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicInteger state = new AtomicInteger(State.CLOSED.ordinal());
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile long openedAt;
+
+    RailHealth(PaymentRail rail, long coolDown, TimeUnit unit) {
+        this.rail = rail;
+        this.coolDownNanos = unit.toNanos(coolDown);
+    }
+
+    public PaymentRail rail() {
+        return rail;
+    }
+
+    // Whether a payment may be sent now: ACQUIRED, PROBE for the one caller that moves OPEN to HALF_OPEN, or DENIED.
+    int tryAcquire(long nowNanos) {
+        int current = state.get();
+        if (current == State.CLOSED.ordinal()) {
+            return ACQUIRED;
+        }
+        return current == State.OPEN.ordinal()
+                && nowNanos - openedAt >= coolDownNanos
+                && state.compareAndSet(current, State.HALF_OPEN.ordinal()) ? PROBE : DENIED;
+    }
+
+    // Hands back a permit whose attempt was never started; a probe lets the next caller probe instead.
+    void abandon(int permit) {
+        if (permit == PROBE) {
+            state.compareAndSet(State.HALF_OPEN.ordinal(), State.OPEN.ordinal());
+        }
+    }
+
+    // Called when an attempt starts; every started attempt ends in recordSuccess() or recordFailure().
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    boolean isAvailable(long nowNanos) {
+        int current = state.get();
+        return current == State.CLOSED.ordinal()
+                || (current == State.OPEN.ordinal() && nowNanos - openedAt >= coolDownNanos);
+    }
+
+    void recordSuccess(long latencyNanos, int permit) {
+        inFlight.decrementAndGet();
+        calls.increment();
+        updateLatency(latencyEwmaBits, latencyNanos);
+        updateEwma(errorEwmaBits, 0);
+        if (permit == PROBE) {
+            errorEwmaBits.set(Double.doubleToRawLongBits(0));
+            state.compareAndSet(State.HALF_OPEN.ordinal(), State.CLOSED.ordinal());
+        }
+    }
+
+    void recordFailure(long latencyNanos, int permit) {
+        inFlight.decrementAndGet();
+        calls.increment();
+        failures.increment();
+        updateLatency(failureLatencyEwmaBits, latencyNanos);
+        double errorRate = updateEwma(errorEwmaBits, 1);
+        if (permit == PROBE) {
+            openedAt = System.nanoTime();
+            state.compareAndSet(State.HALF_OPEN.ordinal(), State.OPEN.ordinal());
+        } else if (errorRate > FAILURE_THRESHOLD && calls.sum() >= MIN_CALLS) {
+            openedAt = System.nanoTime();
+            state.compareAndSet(State.CLOSED.ordinal(), State.OPEN.ordinal());
+        }
+    }
+
+    // Lower is better: expected nanoseconds until the payment succeeds, here or on a retry costing retryNanos.
+    double score(double retryNanos) {
+        double errorRate = errorRate();
+        return (1 - errorRate) * latencyNanos() + errorRate * (failureLatencyNanos() + retryNanos);
+    }
+
+    // score() scaled by the attempts already in flight here, so concurrent payments spread out
+    double loadedScore(double retryNanos) {
+        return score(retryNanos) * (inFlight.get() + 1);
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    // EWMA of successful attempts only
+    public double latencyNanos() {
+        return Double.longBitsToDouble(latencyEwmaBits.get());
+    }
+
+    public double failureLatencyNanos() {
+        return Double.longBitsToDouble(failureLatencyEwmaBits.get());
+    }
+
+    public double errorRate() {
+        return Double.longBitsToDouble(errorEwmaBits.get());
+    }
+
+    public State state() {
+        return State.values()[state.get()];
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    // The first sample seeds the average, so a new rail does not look faster than it is.
+    private static void updateLatency(AtomicLong bits, long latencyNanos) {
+        while (true) {
+            long current = bits.get();
+            double previous = Double.longBitsToDouble(current);
+            double next = previous == 0 ? latencyNanos : previous * (1 - ALPHA) + latencyNanos * ALPHA;
+            if (bits.compareAndSet(current, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private static double updateEwma(AtomicLong bits, double sample) {
+        while (true) {
+            long current = bits.get();
+            double next = Double.longBitsToDouble(current) * (1 - ALPHA) + sample * ALPHA;
+            if (bits.compareAndSet(current, Double.doubleToRawLongBits(next))) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[state=%s, latency=%.2fms, errorRate=%.3f, calls=%d, failures=%d]",
+                rail.name(), state(), latencyNanos() / 1e6, errorRate(), calls(), failures());
+    }
+}
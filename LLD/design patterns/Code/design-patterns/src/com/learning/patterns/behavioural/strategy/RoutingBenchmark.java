@@ -0,0 +1,92 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Payment latency with one degraded rail: fixed rail vs RoutingPaymentStrategy.
+ * - Three simulated UPI rails (1, 1.5 and 2 ms). PSP-A, the fastest and the
+ *   fixed choice, is healthy, degraded (10% of calls take 50 ms, 10% fail),
+ *   fail-fast (25% of calls are declined at once, below the breaker threshold)
+ *   or down (every call fails, so its circuit breaker opens).
+ * - fixed        : every payment goes to PSP-A, like choosing a PaymentType.
+ * - routing      : healthiest rail, retry on failure, circuit breaker.
+ * - routing+hedge: as above, plus a hedged attempt after 4 ms.
+ * - 4,000 payments from 32 concurrent virtual threads; reports p50/p99,
+ *   payments that failed outright and, for the routed modes, calls per rail.
+ * - One unreported routing+hedge run first, so the router is JIT-compiled
+ *   before it is measured.
+ */
+public class RoutingBenchmark {
+
+    private static final int PAYMENTS = 4_000;
+    private static final int CONCURRENCY = 32;
+
+    public static void main(String[] args) throws InterruptedException {
+        PrintStream console = System.out;
+        System.out.printf("%-14s %-10s %10s %10s %8s%n", "mode", "rail A", "p50 ms", "p99 ms", "failed");
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            run(System.out, "routing+hedge", "healthy"); // JIT warm-up, not reported
+            for (String railA : new String[]{"healthy", "degraded", "fail-fast", "down"}) {
+                for (String mode : new String[]{"fixed", "routing", "routing+hedge"}) {
+                    run(console, mode, railA);
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void run(PrintStream console, String mode, String railA) throws InterruptedException {
+        SimulatedRail a = new SimulatedRail("PSP-A", 1_000, TimeUnit.MICROSECONDS);
+        SimulatedRail b = new SimulatedRail("PSP-B", 1_500, TimeUnit.MICROSECONDS);
+        SimulatedRail c = new SimulatedRail("PSP-C", 2_000, TimeUnit.MICROSECONDS);
+        switch (railA) {
+            case "degraded" -> a.degrade(0.10, 50, TimeUnit.MILLISECONDS, 0.10);
+            case "fail-fast" -> a.failFast(0.25);
+            case "down" -> a.degrade(0, 0, TimeUnit.MILLISECONDS, 1.0);
+        }
+        long hedgeMillis = mode.equals("routing+hedge") ? 4 : 0;
+        try (RoutingPaymentStrategy router = new RoutingPaymentStrategy(List.of(a, b, c), hedgeMillis, 500, TimeUnit.MILLISECONDS)) {
+            PaymentStrategy strategy = mode.equals("fixed")
+                    ? amount -> {
+                        long transactionId = SnowflakeIdGenerator.shared().nextId();
+                        a.submit(transactionId, amount);
+                        return transactionId;
+                    }
+                    : router;
+            long[] latencies = new long[PAYMENTS];
+            AtomicInteger failed = new AtomicInteger();
+            AtomicInteger nextPayment = new AtomicInteger();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int t = 0; t < CONCURRENCY; t++) {
+                    clients.submit(() -> {
+                        int i;
+                        while ((i = nextPayment.getAndIncrement()) < PAYMENTS) {
+                            long start = System.nanoTime();
+                            try {
+                                strategy.pay(100);
+                            } catch (RuntimeException e) {
+                                failed.incrementAndGet();
+                            }
+                            latencies[i] = System.nanoTime() - start;
+                        }
+                    });
+                }
+            }
+            Arrays.sort(latencies);
+            console.printf("%-14s %-10s %10.2f %10.2f %8d%n", mode, railA,
+                    latencies[PAYMENTS / 2] / 1e6, latencies[(int) (PAYMENTS * 0.99)] / 1e6, failed.get());
+            if (!mode.equals("fixed")) {
+                console.println("    " + router.health() + " hedges=" + router.hedges() + " retries=" + router.retries());
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * RoutingPaymentStrategy:
+ * A PaymentStrategy that sends each payment over the healthiest of several
+ * interchangeable PaymentRails instead of a fixed one.
+ * - Rails are ranked by RailHealth.score(), the expected time to a successful
+ *   payment. A failure is charged the time it took plus a retry on the slowest
+ *   available rail. Rails whose circuit breaker is open are skipped.
+ * - The first rail is picked by "power of two choices": the best-ranked rail
+ *   against one random other, and the lower loadedScore() (score x attempts in
+ *   flight) goes first. Always taking the single best score sent every
+ *   concurrent payment to one rail until its EWMA caught up, then herded them
+ *   to the next; the in-flight count reacts at once. Retries and hedges follow
+ *   in score order.
+ * - A small share of payments (EXPLORATION_RATE) goes to a random available rail
+ *   first, so a rail that has recovered gets measured again.
+ * - Retries: if an attempt fails, the payment moves on to the next-ranked rail.
+ * - Hedging: if the first attempt has not finished after hedgeDelay, the payment
+ *   is also submitted to the next-ranked rail and the first success wins. Both
+ *   attempts carry the same transaction id (see PaymentRail). The slower attempt
+ *   is left to finish so its latency still counts towards that rail's health.
+ * - Without hedging, attempts run on the calling thread. With hedging they run
+ *   on virtual threads and pay() waits for the first success.
+ */
+public class RoutingPaymentStrategy implements PaymentStrategy, AutoCloseable {
+
+    static final double EXPLORATION_RATE = 0.02;
+
+    private final RailHealth[] rails;
+    private final long hedgeDelayNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    // hedgeDelay <= 0 disables hedging.
+    public RoutingPaymentStrategy(List<? extends PaymentRail> rails, long hedgeDelay, long breakerCoolDown, TimeUnit unit) {
+        if (rails.isEmpty()) {
+            throw new IllegalArgumentException("At least one payment rail is required");
+        }
+        this.rails = new RailHealth[rails.size()];
+        for (int i = 0; i < this.rails.length; i++) {
+            this.rails[i] = new RailHealth(rails.get(i), breakerCoolDown, unit);
+        }
+        this.hedgeDelayNanos = unit.toNanos(hedgeDelay);
+    }
+
+    @Override
+    public long pay(double amount) {
+        long transactionId = SnowflakeIdGenerator.shared().nextId();
+        RailHealth[] ranked = rank(System.nanoTime());
+        return hedgeDelayNanos > 0 ? payHedged(ranked, transactionId, amount) : payInline(ranked, transactionId, amount);
+    }
+
+    // Without hedging there is nothing to wait on concurrently, so attempts run on the caller's thread.
+    private long payInline(RailHealth[] ranked, long transactionId, double amount) {
+        RuntimeException lastFailure = null;
+        for (RailHealth health : ranked) {
+            int permit = health.tryAcquire(System.nanoTime());
+            if (permit == RailHealth.DENIED) {
+                continue;
+            }
+            if (lastFailure != null) {
+                retries.increment();
+            }
+            try {
+                attempt(health, permit, transactionId, amount);
+                IO.println("Routed payment of amount: " + amount + " via " + health.rail().name());
+                return transactionId;
+            } catch (RuntimeException e) {
+                lastFailure = e;
+            }
+        }
+        throw new IllegalStateException("Payment " + TransactionIds.format(transactionId)
+                + " failed on every available rail", lastFailure);
+    }
+
+    private long payHedged(RailHealth[] ranked, long transactionId, double amount) {
+        CompletionService<RailHealth> completion = new ExecutorCompletionService<>(executor);
+        int next = 0;
+        int inFlight = 0;
+        boolean hedged = false;
+        Throwable lastFailure = null;
+        try {
+            while (true) {
+                // Start another attempt if nothing is running (first try or retry)
+                while (inFlight == 0 && next < ranked.length) {
+                    if (submit(completion, ranked[next++], transactionId, amount)) {
+                        inFlight++;
+                        if (lastFailure != null) {
+                            retries.increment();
+                        }
+                    }
+                }
+                if (inFlight == 0) {
+                    throw new IllegalStateException("Payment " + TransactionIds.format(transactionId)
+                            + " failed on every available rail", lastFailure);
+                }
+                Future<RailHealth> done;
+                if (!hedged && next < ranked.length) {
+                    done = completion.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        hedged = true;
+                        while (next < ranked.length) {
+                            if (submit(completion, ranked[next++], transactionId, amount)) {
+                                inFlight++;
+                                hedges.increment();
+                                break;
+                            }
+                        }
+                        continue;
+                    }
+                } else {
+                    done = completion.take();
+                }
+                inFlight--;
+                try {
+                    RailHealth winner = done.get();
+                    IO.println("Routed payment of amount: " + amount + " via " + winner.rail().name());
+                    return transactionId;
+                } catch (ExecutionException e) {
+                    lastFailure = e.getCause();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while routing payment", e);
+        }
+    }
+
+    private boolean submit(CompletionService<RailHealth> completion, RailHealth health, long transactionId, double amount) {
+        int permit = health.tryAcquire(System.nanoTime());
+        if (permit == RailHealth.DENIED) {
+            return false;
+        }
+        try {
+            completion.submit(() -> attempt(health, permit, transactionId, amount));
+        } catch (RuntimeException | Error e) {
+            health.abandon(permit); // e.g. rejected after close(): the probe never ran
+            throw e;
+        }
+        return true;
+    }
+
+    // Records the outcome against the permit that started it, even if the rail throws an Error
+    private static RailHealth attempt(RailHealth health, int permit, long transactionId, double amount) {
+        health.started();
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            health.rail().submit(transactionId, amount);
+            succeeded = true;
+        } finally {
+            long latencyNanos = System.nanoTime() - start;
+            if (succeeded) {
+                health.recordSuccess(latencyNanos, permit);
+            } else {
+                health.recordFailure(latencyNanos, permit);
+            }
+        }
+        return health;
+    }
+
+    // Available rails: the power-of-two pick (or, now and then, a random one) first, the rest healthiest first.
+    private RailHealth[] rank(long nowNanos) {
+        List<RailHealth> available = new ArrayList<>(rails.length);
+        for (RailHealth rail : rails) {
+            if (rail.isAvailable(nowNanos)) {
+                available.add(rail);
+            }
+        }
+        RailHealth[] ranked = available.toArray(new RailHealth[0]);
+        // A failed attempt is retried on the next rail; assume the worst of them
+        double retryNanos = 0;
+        for (RailHealth rail : ranked) {
+            retryNanos = Math.max(retryNanos, rail.latencyNanos());
+        }
+        double[] scores = new double[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            scores[i] = ranked[i].score(retryNanos);
+        }
+        // Insertion sort: there are only a handful of rails
+        for (int i = 1; i < ranked.length; i++) {
+            for (int j = i; j > 0 && scores[j] < scores[j - 1]; j--) {
+                double score = scores[j];
+                scores[j] = scores[j - 1];
+                scores[j - 1] = score;
+                RailHealth rail = ranked[j];
+                ranked[j] = ranked[j - 1];
+                ranked[j - 1] = rail;
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (ranked.length > 1) {
+            int first;
+            if (random.nextDouble() < EXPLORATION_RATE) {
+                first = 1 + random.nextInt(ranked.length - 1);
+            } else {
+                // Power of two choices on load-adjusted cost: the best rail against a random challenger
+                int challenger = 1 + random.nextInt(ranked.length - 1);
+                first = ranked[0].loadedScore(retryNanos) <= ranked[challenger].loadedScore(retryNanos) ? 0 : challenger;
+            }
+            RailHealth rail = ranked[first];
+            System.arraycopy(ranked, 0, ranked, 1, first);
+            ranked[0] = rail;
+        }
+        return ranked;
+    }
+
+    public List<RailHealth> health() {
+        return List.of(rails);
+    }
+
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
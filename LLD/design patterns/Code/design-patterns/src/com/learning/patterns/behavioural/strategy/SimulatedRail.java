@@ -0,0 +1,133 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * PaymentRail stand-in for demos and benchmarks.
+ * - Each call waits the base latency (+/- 25% jitter).
+ * - degrade() injects trouble at runtime: a share of calls becomes slow and a
+ *   share fails with an exception; recover() removes it again.
+ * - failFast() makes a share of calls fail at once, without the network wait,
+ *   like a rail rejecting requests at its front door.
+ * - submitAsync() is the non-blocking form: the reply is completed by one shared
+ *   timer thread, so no thread waits while the payment is "on the network".
+ * - inFlight()/peakInFlight() count calls currently on the rail.
+ */
+public class SimulatedRail implements PaymentRail {
+
+    private static final ScheduledExecutorService NETWORK = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "simulated-network");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final long baseLatencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile double slowFraction;
+    private volatile long slowLatencyNanos;
+    private volatile double failureRate;
+    private volatile boolean failFast;
+
+    public SimulatedRail(String name, long baseLatency, TimeUnit unit) {
+        this.name = name;
+        this.baseLatencyNanos = unit.toNanos(baseLatency);
+    }
+
+    public void degrade(double slowFraction, long slowLatency, TimeUnit unit, double failureRate) {
+        this.slowFraction = slowFraction;
+        this.slowLatencyNanos = unit.toNanos(slowLatency);
+        this.failureRate = failureRate;
+        this.failFast = false;
+    }
+
+    public void failFast(double failureRate) {
+        this.slowFraction = 0;
+        this.failureRate = failureRate;
+        this.failFast = true;
+    }
+
+    public void recover() {
+        slowFraction = 0;
+        failureRate = 0;
+        failFast = false;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void submit(long transactionId, double amount) {
+        enter();
+        try {
+            boolean declines = declines();
+            if (!(declines && failFast)) {
+                LockSupport.parkNanos(nextLatencyNanos());
+            }
+            if (declines) {
+                throw declined(transactionId);
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public CompletableFuture<Void> submitAsync(long transactionId, double amount) {
+        CompletableFuture<Void> reply = new CompletableFuture<>();
+        boolean declines = declines();
+        if (declines && failFast) {
+            reply.completeExceptionally(declined(transactionId));
+            return reply;
+        }
+        enter();
+        NETWORK.schedule(() -> {
+            inFlight.decrementAndGet();
+            if (declines) {
+                reply.completeExceptionally(declined(transactionId));
+            } else {
+                reply.complete(null);
+            }
+        }, nextLatencyNanos(), TimeUnit.NANOSECONDS);
+        return reply;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public void resetPeak() {
+        peakInFlight.set(inFlight.get());
+    }
+
+    private void enter() {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    }
+
+    private long nextLatencyNanos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextDouble() < slowFraction
+                ? slowLatencyNanos
+                : baseLatencyNanos * (75 + random.nextInt(51)) / 100;
+    }
+
+    private boolean declines() {
+        return ThreadLocalRandom.current().nextDouble() < failureRate;
+    }
+
+    private IllegalStateException declined(long transactionId) {
+        return new IllegalStateException(name + " declined transaction " + TransactionIds.format(transactionId));
+    }
+}
@@ -0,0 +1,142 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Snowflake-style transaction ID generator
+ * - 64-bit, k-sortable IDs: [41 bits ms since EPOCH_MILLIS][10 bits node][12 bits sequence].
+ *   The sign bit stays 0 until 2093, so numeric, signed and base-32 order agree.
+ * - Lock-free: the last (timestamp, sequence) pair reserved lives in one AtomicLong
+ *   and is advanced with a CAS, so there is no SecureRandom and no lock per payment.
+ * - Thread-local sequence blocks: a thread reserves blockSize consecutive sequence
+ *   values with one CAS and hands them out without touching shared state. A block
+ *   is dropped once the clock moves past its millisecond, so IDs stay time-ordered
+ *   to within a millisecond across threads.
+ * - Virtual threads skip the blocks: they are typically created per task and draw
+ *   one or two IDs, so a block would waste most of its values (and with them the
+ *   millisecond's 4096). They reserve a single value with one CAS instead.
+ * - Unique per node: within a millisecond the sequence counts up. Once all 4096
+ *   values of a millisecond are taken, callers wait for the clock to tick
+ *   (caps a node at ~4M IDs/s) instead of borrowing future timestamps.
+ * - Clock rollback: IDs never go backwards. After a rollback the generator keeps
+ *   counting within the last millisecond issued, then waits for the clock to
+ *   catch up. A rollback larger than maxDriftMillis makes nextId() throw rather
+ *   than stall payments for that long.
+ */
+public final class SnowflakeIdGenerator {
+
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+    public static final long DEFAULT_MAX_DRIFT_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private static final SnowflakeIdGenerator SHARED = new SnowflakeIdGenerator(Integer.getInteger("payment.node.id", 0));
+
+    private final long nodeBits;
+    private final int blockSize;
+    private final long maxDriftMillis;
+    private final LongSupplier clock;
+    // (millis since EPOCH_MILLIS) << SEQUENCE_BITS | sequence, of the last value reserved
+    private final AtomicLong last = new AtomicLong();
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_DRIFT_MILLIS, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int nodeId, int blockSize) {
+        this(nodeId, blockSize, DEFAULT_MAX_DRIFT_MILLIS, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int nodeId, int blockSize, long maxDriftMillis, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + ": " + nodeId);
+        }
+        if (blockSize < 1 || blockSize > SEQUENCE_MASK + 1) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + (SEQUENCE_MASK + 1) + ": " + blockSize);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.blockSize = blockSize;
+        this.maxDriftMillis = maxDriftMillis;
+        this.clock = clock;
+    }
+
+    // Generator for this JVM; the node id comes from -Dpayment.node.id (default 0).
+    public static SnowflakeIdGenerator shared() {
+        return SHARED;
+    }
+
+    public long nextId() {
+        long nowMillis = clock.getAsLong() - EPOCH_MILLIS;
+        long value;
+        if (blockSize == 1 || Thread.currentThread().isVirtual()) {
+            value = reserve(nowMillis, 1);
+        } else {
+            Block block = blocks.get();
+            // A block is only used within (or, after a rollback, before) its own millisecond
+            if (block.next == block.limit || (block.next >>> SEQUENCE_BITS) < nowMillis) {
+                block.next = reserve(nowMillis, blockSize);
+                block.limit = blockEnd(block.next, blockSize);
+            }
+            value = block.next++;
+        }
+        return (value >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (value & SEQUENCE_MASK);
+    }
+
+    public String nextIdString() {
+        return TransactionIds.format(nextId());
+    }
+
+    // Reserves up to size consecutive values with one CAS and returns the first.
+    private long reserve(long nowMillis, int size) {
+        while (true) {
+            long previous = last.get();
+            long previousMillis = previous >>> SEQUENCE_BITS;
+            if (previousMillis - nowMillis > maxDriftMillis) {
+                throw new IllegalStateException("Clock moved back " + (previousMillis - nowMillis)
+                        + " ms, beyond the " + maxDriftMillis + " ms tolerated");
+            }
+            long now = nowMillis << SEQUENCE_BITS;
+            // Same millisecond or clock behind: count on from the last value
+            long start = now > previous ? now : previous + 1;
+            long startMillis = start >>> SEQUENCE_BITS;
+            if (startMillis > Math.max(nowMillis, previousMillis)) {
+                // This millisecond's 4096 values are used up: wait for the clock
+                Thread.yield();
+                nowMillis = clock.getAsLong() - EPOCH_MILLIS;
+                continue;
+            }
+            if (last.compareAndSet(previous, blockEnd(start, size) - 1)) {
+                return start;
+            }
+        }
+    }
+
+    // Blocks never cross into the next millisecond
+    private static long blockEnd(long start, int size) {
+        return Math.min(start + size, ((start >>> SEQUENCE_BITS) + 1) << SEQUENCE_BITS);
+    }
+
+    public static long timestampMillis(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeId(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE;
+    }
+
+    public static int sequence(long id) {
+        return (int) (id & SEQUENCE_MASK);
+    }
+
+    // Range [next, limit) of packed (timestamp, sequence) values owned by one thread.
+    private static final class Block {
+        private long next;
+        private long limit;
+    }
+}
@@ -11,5 +11,13 @@ public class StrategyPatternDemo {
         // Execute payment
         String txnId = strategy.makePayment(5000);
         System.out.println("Transaction successful with ID: " + txnId);
+
+        // Plug in a strategy for a new payment type without editing the factory
+        PaymentStrategyFactory.register(PaymentType.NET_BANKING, amount -> {
+            IO.println("Making net banking payment of amount: " + amount);
+            return SnowflakeIdGenerator.shared().nextId();
+        });
+        String netBankingTxnId = PaymentStrategyFactory.getPaymentStrategy(PaymentType.NET_BANKING).makePayment(1200);
+        System.out.println("Transaction successful with ID: " + netBankingTxnId);
     }
 }
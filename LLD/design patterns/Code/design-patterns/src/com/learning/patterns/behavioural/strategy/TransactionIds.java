@@ -0,0 +1,57 @@
+package com.learning.patterns.behavioural.strategy;
+
+import java.util.Arrays;
+
+/*
+ * Compact text form of 64-bit transaction IDs
+ * - Crockford base-32: 13 characters, fixed width, no I/L/O/U, case-insensitive
+ *   on parse. Fixed width keeps string order equal to numeric (time) order.
+ * - Only rendered when a String is actually needed (e.g. a receipt);
+ *   everything else should pass the long around.
+ */
+public final class TransactionIds {
+
+    public static final int LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+        // Crockford aliases for characters that are easy to misread
+        VALUES['O'] = VALUES['o'] = 0;
+        VALUES['I'] = VALUES['i'] = VALUES['L'] = VALUES['l'] = 1;
+    }
+
+    private TransactionIds() {
+    }
+
+    public static String format(long id) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static long parse(String text) {
+        if (text.length() != LENGTH) {
+            throw new IllegalArgumentException("Transaction id must be " + LENGTH + " characters: " + text);
+        }
+        long id = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = text.charAt(i);
+            int value = c < VALUES.length ? VALUES[c] : -1;
+            // The first character only carries the top 4 bits
+            if (value < 0 || (i == 0 && value > 15)) {
+                throw new IllegalArgumentException("Invalid transaction id: " + text);
+            }
+            id = id << 5 | value;
+        }
+        return id;
+    }
+}
@@ -1,17 +1,16 @@
 package com.learning.patterns.behavioural.strategy;
 
-import java.util.UUID;
-
 /*
  * Concrete Strategy: UPI Payment
  * - Implements PaymentStrategy interface
  * - Provides specific logic for UPI payments
+ * - Stateless, so PaymentStrategyFactory shares one instance
  */
 public class UPIPaymentStrategy implements PaymentStrategy {
 
     @Override
-    public String makePayment(double amount) {
+    public long pay(double amount) {
         IO.println("Making UPI payment of amount: " + amount);
-        return UUID.randomUUID().toString();
+        return SnowflakeIdGenerator.shared().nextId();
     }
 }
@@ -6,15 +6,65 @@ package com.learning.patterns.behavioural.template;
  * Defines the "template method" — a fixed workflow for processing a payment.
  * Subclasses can provide custom implementations for each step but
  * cannot change the order of execution.
+ * The steps are also listed in Step, so PipelinedPaymentEngine can run the
+ * same workflow one stage at a time.
+ * With -Dpayment.template.timing=true every step is timed into StepTimings.
  */
 public abstract class PaymentProcessorTemplate {
 
+    // The steps of the workflow, in execution order
+    public enum Step { VALIDATE, AUTHENTICATE, PROCESS, NOTIFY }
+
+    static final Step[] STEPS = Step.values();
+
     // Template method - defines the algorithm structure
     public final void processPayment() {
-        validatePayment();
-        authenticateUser();
-        processTransaction();
-        sendNotification();
+        if (!StepTimings.ENABLED) {
+            for (Step step : STEPS) {
+                dispatch(step);
+            }
+        } else {
+            // Each step's end time is the next step's start time: one clock read per step
+            long time = System.nanoTime();
+            for (Step step : STEPS) {
+                time = timeStep(step, time);
+            }
+        }
+        completeFlow();
+    }
+
+    // Runs a single step of the workflow
+    final void runStep(Step step) {
+        if (!StepTimings.ENABLED) {
+            dispatch(step);
+        } else {
+            timeStep(step, System.nanoTime());
+        }
+    }
+
+    // Runs the step and records its latency; returns the time it ended
+    private long timeStep(Step step, long start) {
+        try {
+            dispatch(step);
+        } catch (RuntimeException | Error e) {
+            StepTimings.record(getClass(), step, System.nanoTime() - start, true);
+            throw e;
+        }
+        long end = System.nanoTime();
+        StepTimings.record(getClass(), step, end - start, false);
+        return end;
+    }
+
+    private void dispatch(Step step) {
+        switch (step) {
+            case VALIDATE -> validatePayment();
+            case AUTHENTICATE -> authenticateUser();
+            case PROCESS -> processTransaction();
+            case NOTIFY -> sendNotification();
+        }
+    }
+
+    final void completeFlow() {
         System.out.println("✅ Payment flow completed.\n");
     }
 
@@ -24,4 +74,3 @@ public abstract class PaymentProcessorTemplate {
     protected abstract void processTransaction();
     protected abstract void sendNotification();
 }
-
@@ -0,0 +1,172 @@
+package com.learning.patterns.behavioural.template;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Pipelined Template Engine
+ * -------------------------
+ * Runs the PaymentProcessorTemplate workflow as four stages, one per Step, each
+ * with its own bounded queue and worker threads. While one payment is being
+ * processed, the next ones are already being validated and authenticated, so
+ * a batch of payments moves through all four steps at once.
+ * - Each payment still runs its steps in template order, each step once; a
+ *   failing step (any Throwable) stops that payment and completes its futures
+ *   exceptionally. The worker itself carries on with the next payment.
+ * - The payment's `committed` future completes right after processTransaction;
+ *   sendNotification then finishes asynchronously and completes `completed`.
+ * - Full queues block the stage in front of them (and submit()), so a slow
+ *   stage throttles the pipeline instead of buffering without limit.
+ * - close() rejects new payments, waits for submit() calls already in flight
+ *   (a full first queue keeps draining meanwhile), lets every accepted payment
+ *   finish, then stops the workers. submit() after close() throws.
+ */
+public class PipelinedPaymentEngine implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private static final Job POISON = new Job(null);
+
+    private final Stage[] stages = new Stage[PaymentProcessorTemplate.STEPS.length];
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean closed;
+
+    public PipelinedPaymentEngine() {
+        this(DEFAULT_QUEUE_CAPACITY, 2, 4, 4, 2);
+    }
+
+    // workersPerStep gives the worker count for VALIDATE, AUTHENTICATE, PROCESS and NOTIFY.
+    public PipelinedPaymentEngine(int queueCapacity, int... workersPerStep) {
+        if (workersPerStep.length != stages.length) {
+            throw new IllegalArgumentException("Expected a worker count for each of the " + stages.length + " steps");
+        }
+        for (int i = stages.length - 1; i >= 0; i--) {
+            stages[i] = new Stage(PaymentProcessorTemplate.STEPS[i], queueCapacity, workersPerStep[i],
+                    i + 1 < stages.length ? stages[i + 1] : null);
+        }
+    }
+
+    /*
+     * One payment in the pipeline.
+     * committed : completes after processTransaction (or exceptionally if a step failed).
+     * completed : completes once sendNotification has run as well.
+     */
+    public record StagedPayment(CompletableFuture<Void> committed, CompletableFuture<Void> completed) {
+    }
+
+    public StagedPayment submit(PaymentProcessorTemplate payment) {
+        inFlight.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Engine is closed");
+            }
+            Job job = new Job(payment);
+            stages[0].put(job);
+            return new StagedPayment(job.committed, job.completed);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        // A submit() that passed its closed check must enqueue before the POISON pills
+        while (inFlight.get() != 0) {
+            Thread.yield();
+        }
+        // Stage by stage, so everything a stage forwards arrives before its successor is stopped
+        for (Stage stage : stages) {
+            stage.stop();
+        }
+    }
+
+    private static final class Job {
+        private final PaymentProcessorTemplate payment;
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+        private final CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        private Job(PaymentProcessorTemplate payment) {
+            this.payment = payment;
+        }
+    }
+
+    private static final class Stage {
+        private final PaymentProcessorTemplate.Step step;
+        private final BlockingQueue<Job> queue;
+        private final Stage next;
+        private final Thread[] workers;
+
+        private Stage(PaymentProcessorTemplate.Step step, int queueCapacity, int workerCount, Stage next) {
+            if (workerCount < 1) {
+                throw new IllegalArgumentException("Stage " + step + " needs at least one worker");
+            }
+            this.step = step;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.next = next;
+            this.workers = new Thread[workerCount];
+            for (int i = 0; i < workerCount; i++) {
+                workers[i] = Thread.ofPlatform().name("stage-" + step + "-" + i).daemon(true).start(this::work);
+            }
+        }
+
+        private void work() {
+            while (true) {
+                Job job = take();
+                if (job == POISON) {
+                    return;
+                }
+                try {
+                    job.payment.runStep(step);
+                    if (step == PaymentProcessorTemplate.Step.PROCESS) {
+                        job.committed.complete(null);
+                    }
+                    if (next != null) {
+                        next.put(job);
+                    } else {
+                        job.payment.completeFlow();
+                        job.completed.complete(null);
+                    }
+                } catch (Throwable t) {
+                    // Errors too: a dead worker would leave this job's futures pending forever
+                    job.committed.completeExceptionally(t);
+                    job.completed.completeExceptionally(t);
+                }
+            }
+        }
+
+        private Job take() {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return POISON;
+            }
+        }
+
+        private void put(Job job) {
+            try {
+                queue.put(job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing a payment for " + step, e);
+            }
+        }
+
+        private void stop() {
+            for (int i = 0; i < workers.length; i++) {
+                put(POISON);
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
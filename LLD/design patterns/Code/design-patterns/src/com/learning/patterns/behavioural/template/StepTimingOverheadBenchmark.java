@@ -0,0 +1,137 @@
+package com.learning.patterns.behavioural.template;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Cost of StepTimings, and where UPI and Card payments spend their time.
+ * - StepTimings.ENABLED is a static final, so this main() starts itself twice
+ *   in a fresh JVM: once with -Dpayment.template.timing=false, once with =true.
+ * - steps        : the four runStep() calls (as PipelinedPaymentEngine makes them)
+ *                  of a processor whose steps do almost nothing: the bare overhead.
+ * - flow         : processPayment() of the same processor; its steps share clock
+ *                  reads, and the console line of completeFlow() is included.
+ * - UPI / Card   : processPayment() of the real processors (console discarded).
+ * - Reported as best-of-rounds ns per payment and bytes allocated per payment.
+ * - With timing on, the child also runs the slow UPI and Card processors of
+ *   TemplatePipelineBenchmark through PipelinedPaymentEngine and prints the
+ *   StepTimings export.
+ */
+public class StepTimingOverheadBenchmark {
+
+    private static final int PAYMENTS = 1_000_000;
+    private static final int ROUNDS = 7;
+    private static final int SLOW_PAYMENTS = 500;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("child")) {
+            child();
+            return;
+        }
+        for (String enabled : new String[]{"false", "true"}) {
+            System.out.println("----- payment.template.timing=" + enabled + " -----");
+            List<String> command = new ArrayList<>();
+            command.add(ProcessHandle.current().info().command().orElse("java"));
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.add("-Dpayment.template.timing=" + enabled);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(StepTimingOverheadBenchmark.class.getName());
+            command.add("child");
+            int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exit != 0) {
+                System.exit(exit);
+            }
+        }
+    }
+
+    private static void child() {
+        PrintStream console = System.out;
+        String[] lines = new String[4];
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            lines[0] = measure("steps", new CountingProcessor(), true);
+            lines[1] = measure("flow", new CountingProcessor(), false);
+            lines[2] = measure("UPI", new UPIPaymentProcessor(), false);
+            lines[3] = measure("Card", new CardPaymentProcessor(), false);
+        } finally {
+            System.setOut(console);
+        }
+        System.out.printf("%-6s %12s %12s%n", "run", "ns/payment", "B/payment");
+        for (String line : lines) {
+            System.out.println(line);
+        }
+        if (StepTimings.ENABLED) {
+            StepTimings.reset();
+            runSlowPayments();
+            System.out.println();
+            System.out.print(StepTimings.toCsv());
+        }
+        System.out.println();
+    }
+
+    private static String measure(String flow, PaymentProcessorTemplate processor, boolean stepsOnly) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < PAYMENTS; i++) {
+                if (stepsOnly) {
+                    for (PaymentProcessorTemplate.Step step : PaymentProcessorTemplate.STEPS) {
+                        processor.runStep(step);
+                    }
+                } else {
+                    processor.processPayment();
+                }
+            }
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            bestBytes = Math.min(bestBytes, threads.getCurrentThreadAllocatedBytes() - bytes);
+        }
+        return String.format("%-6s %12.1f %12.1f", flow, (double) bestNanos / PAYMENTS, (double) bestBytes / PAYMENTS);
+    }
+
+    private static void runSlowPayments() {
+        PrintStream console = System.out;
+        try (PipelinedPaymentEngine engine = new PipelinedPaymentEngine()) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            List<PipelinedPaymentEngine.StagedPayment> payments = new ArrayList<>();
+            for (int i = 0; i < SLOW_PAYMENTS; i++) {
+                payments.add(engine.submit(new TemplatePipelineBenchmark.SlowUpiProcessor()));
+                payments.add(engine.submit(new TemplatePipelineBenchmark.SlowCardProcessor()));
+            }
+            payments.forEach(payment -> payment.completed().join());
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    // Steps that only bump a counter, so the timing overhead is not hidden by I/O
+    static class CountingProcessor extends PaymentProcessorTemplate {
+        private long calls;
+
+        @Override
+        protected void validatePayment() {
+            calls++;
+        }
+
+        @Override
+        protected void authenticateUser() {
+            calls++;
+        }
+
+        @Override
+        protected void processTransaction() {
+            calls++;
+        }
+
+        @Override
+        protected void sendNotification() {
+            calls++;
+        }
+    }
+}
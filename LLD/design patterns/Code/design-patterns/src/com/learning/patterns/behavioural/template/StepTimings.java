@@ -0,0 +1,99 @@
+package com.learning.patterns.behavioural.template;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Per-step timing of the template method
+ * - Every step is timed into a LatencyHistogram per (processor class, Step),
+ *   plus a failure count for steps that threw. Both paths through
+ *   PaymentProcessorTemplate record here via its timeStep(): processPayment()
+ *   in its own loop (one clock read per step, each step's end is the next
+ *   one's start) and runStep(), which PipelinedPaymentEngine calls.
+ * - Off by default; enable with -Dpayment.template.timing=true. ENABLED is a
+ *   static final, so when it is false the JIT drops the timing branches from
+ *   processPayment() and runStep() entirely (see StepTimingOverheadBenchmark).
+ * - A processor's timers are found through a ClassValue, so recording does not
+ *   hash or allocate.
+ * - snapshot() / toCsv() export the counts and percentiles; reset() clears them.
+ */
+public final class StepTimings {
+
+    public static final boolean ENABLED = Boolean.getBoolean("payment.template.timing");
+
+    private static final Map<Class<?>, Timers> ALL = new ConcurrentHashMap<>();
+    private static final ClassValue<Timers> TIMERS = new ClassValue<>() {
+        @Override
+        protected Timers computeValue(Class<?> type) {
+            return ALL.computeIfAbsent(type, ignored -> new Timers());
+        }
+    };
+
+    // Count and latency of one step of one processor class, in nanoseconds
+    public record StepStats(String processor, PaymentProcessorTemplate.Step step, long count, long failures,
+                            double meanNanos, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+    }
+
+    private StepTimings() {
+    }
+
+    static void record(Class<?> processor, PaymentProcessorTemplate.Step step, long nanos, boolean failed) {
+        Timers timers = TIMERS.get(processor);
+        timers.histograms[step.ordinal()].record(nanos);
+        if (failed) {
+            timers.failures.getAndIncrement(step.ordinal());
+        }
+    }
+
+    public static List<StepStats> snapshot() {
+        List<StepStats> stats = new ArrayList<>();
+        ALL.forEach((type, timers) -> {
+            for (PaymentProcessorTemplate.Step step : PaymentProcessorTemplate.STEPS) {
+                LatencyHistogram histogram = timers.histograms[step.ordinal()];
+                if (histogram.count() > 0) {
+                    stats.add(new StepStats(type.getSimpleName(), step, histogram.count(),
+                            timers.failures.get(step.ordinal()), histogram.meanNanos(),
+                            histogram.valueAtPercentile(50), histogram.valueAtPercentile(99),
+                            histogram.valueAtPercentile(99.9), histogram.maxNanos()));
+                }
+            }
+        });
+        stats.sort(Comparator.comparing(StepStats::processor).thenComparing(StepStats::step));
+        return stats;
+    }
+
+    public static String toCsv() {
+        StringBuilder csv = new StringBuilder("processor,step,count,failures,mean_ns,p50_ns,p99_ns,p999_ns,max_ns\n");
+        for (StepStats s : snapshot()) {
+            csv.append(s.processor()).append(',').append(s.step()).append(',').append(s.count()).append(',')
+                    .append(s.failures()).append(',').append(Math.round(s.meanNanos())).append(',')
+                    .append(s.p50Nanos()).append(',').append(s.p99Nanos()).append(',')
+                    .append(s.p999Nanos()).append(',').append(s.maxNanos()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    public static void reset() {
+        for (Timers timers : ALL.values()) {
+            for (int i = 0; i < timers.histograms.length; i++) {
+                timers.histograms[i].reset();
+                timers.failures.set(i, 0);
+            }
+        }
+    }
+
+    private static final class Timers {
+        private final LatencyHistogram[] histograms = new LatencyHistogram[PaymentProcessorTemplate.STEPS.length];
+        private final AtomicLongArray failures = new AtomicLongArray(PaymentProcessorTemplate.STEPS.length);
+
+        private Timers() {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+    }
+}
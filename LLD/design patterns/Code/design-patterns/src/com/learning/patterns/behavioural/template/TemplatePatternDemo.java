@@ -4,6 +4,7 @@ package com.learning.patterns.behavioural.template;
  * Client Class
  * -------------
  * Demonstrates the Template Method Pattern with UPI and Card payments.
+ * Run with -Dpayment.template.timing=true to print the per-step timings.
  */
 public class TemplatePatternDemo {
 
@@ -16,6 +17,11 @@ public class TemplatePatternDemo {
         System.out.println("----- Processing Card Payment -----");
         PaymentProcessorTemplate cardPayment = new CardPaymentProcessor();
         cardPayment.processPayment();
+
+        if (StepTimings.ENABLED) {
+            System.out.println("----- Step Timings -----");
+            System.out.print(StepTimings.toCsv());
+        }
     }
 }
 
@@ -0,0 +1,128 @@
+package com.learning.patterns.behavioural.template;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Payments per second: serial template vs PipelinedPaymentEngine.
+ * - UPIPaymentProcessor and CardPaymentProcessor, each step extended with a
+ *   simulated I/O wait (UPI: 0.1 / 0.5 / 1 / 0.3 ms, Card: 0.2 / 1 / 2 / 0.5 ms
+ *   for validate / authenticate / process / notify).
+ * - serial   : one thread calling processPayment() per payment.
+ * - pipeline : all payments submitted to the engine; "committed" is when the
+ *              last processTransaction finished, "completed" includes notifications.
+ * - Console output is discarded so only the workflow is measured.
+ */
+public class TemplatePipelineBenchmark {
+
+    private static final int PAYMENTS = 2_000;
+
+    public static void main(String[] args) {
+        PrintStream console = System.out;
+        String[] lines = new String[4];
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            lines[0] = serial("UPI", SlowUpiProcessor::new);
+            lines[1] = pipelined("UPI", SlowUpiProcessor::new);
+            lines[2] = serial("Card", SlowCardProcessor::new);
+            lines[3] = pipelined("Card", SlowCardProcessor::new);
+        } finally {
+            System.setOut(console);
+        }
+        System.out.printf("%-6s %-10s %16s %16s%n", "type", "mode", "committed/s", "completed/s");
+        for (String line : lines) {
+            System.out.println(line);
+        }
+    }
+
+    private static String serial(String type, ProcessorFactory factory) {
+        long start = System.nanoTime();
+        for (int i = 0; i < PAYMENTS; i++) {
+            factory.create().processPayment();
+        }
+        double perSecond = PAYMENTS / ((System.nanoTime() - start) / 1e9);
+        return String.format("%-6s %-10s %,16.0f %,16.0f", type, "serial", perSecond, perSecond);
+    }
+
+    private static String pipelined(String type, ProcessorFactory factory) {
+        try (PipelinedPaymentEngine engine = new PipelinedPaymentEngine()) {
+            CompletableFuture<?>[] committed = new CompletableFuture<?>[PAYMENTS];
+            CompletableFuture<?>[] completed = new CompletableFuture<?>[PAYMENTS];
+            long start = System.nanoTime();
+            for (int i = 0; i < PAYMENTS; i++) {
+                PipelinedPaymentEngine.StagedPayment payment = engine.submit(factory.create());
+                committed[i] = payment.committed();
+                completed[i] = payment.completed();
+            }
+            CompletableFuture.allOf(committed).join();
+            long committedNanos = System.nanoTime() - start;
+            CompletableFuture.allOf(completed).join();
+            long completedNanos = System.nanoTime() - start;
+            return String.format("%-6s %-10s %,16.0f %,16.0f", type, "pipeline",
+                    PAYMENTS / (committedNanos / 1e9), PAYMENTS / (completedNanos / 1e9));
+        }
+    }
+
+    interface ProcessorFactory {
+        PaymentProcessorTemplate create();
+    }
+
+    private static void waitMicros(long micros) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+
+    static class SlowUpiProcessor extends UPIPaymentProcessor {
+        @Override
+        protected void validatePayment() {
+            super.validatePayment();
+            waitMicros(100);
+        }
+
+        @Override
+        protected void authenticateUser() {
+            super.authenticateUser();
+            waitMicros(500);
+        }
+
+        @Override
+        protected void processTransaction() {
+            super.processTransaction();
+            waitMicros(1_000);
+        }
+
+        @Override
+        protected void sendNotification() {
+            super.sendNotification();
+            waitMicros(300);
+        }
+    }
+
+    static class SlowCardProcessor extends CardPaymentProcessor {
+        @Override
+        protected void validatePayment() {
+            super.validatePayment();
+            waitMicros(200);
+        }
+
+        @Override
+        protected void authenticateUser() {
+            super.authenticateUser();
+            waitMicros(1_000);
+        }
+
+        @Override
+        protected void processTransaction() {
+            super.processTransaction();
+            waitMicros(2_000);
+        }
+
+        @Override
+        protected void sendNotification() {
+            super.sendNotification();
+            waitMicros(500);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.learning.patterns.factory;
 
 public class AbstractFactoryDemo {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws java.io.IOException {
         // Get factory for Personal Loan
         LoanFactory personalLoanFactory = LoanFactoryProducer.getLoanFactory(LoanType.PERSONAL);
 
@@ -10,5 +10,22 @@ public class AbstractFactoryDemo {
 
         System.out.println("EMI: " + calculator.calculateEmi(100000, 10, 12));
         System.out.println("Document: " + document.getDocument());
+
+        // Loan type discovered through ServiceLoader (META-INF/services)
+        LoanFactory educationLoanFactory = LoanFactoryProducer.getLoanFactory("EDUCATION");
+        System.out.println("Loan types: " + LoanFactoryProducer.loanTypes());
+        System.out.println("Education EMI: " + educationLoanFactory.createEmiCalculator().calculateEmi(500000, 9, 60)
+                + ", " + educationLoanFactory.createLoanDocument().getDocument());
+
+        // Amortization schedule of a home loan: 50L at 8.5% over 20 years
+        AmortizationEngine engine = LoanFactoryProducer.getLoanFactory(LoanType.HOME).createAmortizationEngine();
+        System.out.println("Home loan EMI: " + engine.emi(5_000_000, 8.5, 240));
+        engine.schedule(5_000_000, 8.5, 240)
+                .filter(installment -> installment.number() <= 3 || installment.number() == 240)
+                .forEach(System.out::println);
+
+        // Full agreement rendered from the home loan template
+        LoanDocumentRenderer renderer = new LoanDocumentRenderer();
+        renderer.render(new LoanAgreement(LoanType.HOME, "LN00000042", "Ananya Gupta", 5_000_000, 8.5, 240), System.out);
     }
 }
\ No newline at end of file
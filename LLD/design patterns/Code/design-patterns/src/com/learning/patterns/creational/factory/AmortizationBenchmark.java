@@ -0,0 +1,139 @@
+package com.learning.patterns.factory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+ * Checks and costs of AmortizationEngine on 30-year home loans.
+ * - Checks: 1,00,000 at 10% for 12 months has EMI 8,791.59; every schedule's
+ *   principal column sums exactly to the loan and ends at a zero balance
+ *   (exit 1 otherwise).
+ * - Total interest of LOANS loans, computed five ways:
+ *   list       : schedule collected into a List<Installment> per loan (what we avoid)
+ *   stream     : schedule() summed lazily
+ *   iterator   : iterator() walked by hand
+ *   callback   : forEachInstallment() with a primitive consumer
+ *   summarize  : the bulk summarize() over arrays of loans
+ * - Reports ns and bytes allocated per installment, best of several rounds.
+ */
+public class AmortizationBenchmark {
+
+    private static final int LOANS = 20_000;
+    private static final int MONTHS = 360;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        AmortizationEngine engine = LoanFactoryProducer.getLoanFactory(LoanType.HOME).createAmortizationEngine();
+        double[] principal = new double[LOANS];
+        double[] rate = new double[LOANS];
+        int[] months = new int[LOANS];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < LOANS; i++) {
+            principal[i] = 1_000_000 + random.nextInt(9_000_000) + random.nextInt(100) / 100.0;
+            rate[i] = 7 + random.nextInt(300) / 100.0;
+            months[i] = MONTHS;
+        }
+        if (!verify(engine, principal, rate)) {
+            System.exit(1);
+        }
+
+        System.out.printf("%-10s %14s %14s %18s%n", "mode", "ns/row", "B/row", "total interest");
+        measure("list", () -> {
+            double total = 0;
+            for (int i = 0; i < LOANS; i++) {
+                List<Installment> rows = new ArrayList<>(engine.schedule(principal[i], rate[i], MONTHS).toList());
+                for (Installment row : rows) {
+                    total += row.interest();
+                }
+            }
+            return total;
+        });
+        measure("stream", () -> {
+            double total = 0;
+            for (int i = 0; i < LOANS; i++) {
+                total += engine.schedule(principal[i], rate[i], MONTHS).mapToDouble(Installment::interest).sum();
+            }
+            return total;
+        });
+        measure("iterator", () -> {
+            double total = 0;
+            for (int i = 0; i < LOANS; i++) {
+                var rows = engine.iterator(principal[i], rate[i], MONTHS);
+                while (rows.hasNext()) {
+                    total += rows.next().interest();
+                }
+            }
+            return total;
+        });
+        measure("callback", () -> {
+            double[] total = new double[1];
+            for (int i = 0; i < LOANS; i++) {
+                engine.forEachInstallment(principal[i], rate[i], MONTHS,
+                        (number, emi, paid, interest, balance) -> total[0] += interest);
+            }
+            return total[0];
+        });
+        double[] emi = new double[LOANS];
+        double[] interest = new double[LOANS];
+        measure("summarize", () -> {
+            engine.summarize(principal, rate, months, emi, interest);
+            double total = 0;
+            for (double value : interest) {
+                total += value;
+            }
+            return total;
+        });
+        System.out.printf("a materialized 30-year schedule of Installment records is ~%,d bytes per loan%n",
+                scheduleBytes(engine));
+    }
+
+    private static boolean verify(AmortizationEngine engine, double[] principal, double[] rate) {
+        boolean ok = engine.emi(100_000, 10, 12) == 8_791.59;
+        double[] emi = new double[MONTHS];
+        double[] paid = new double[MONTHS];
+        double[] interest = new double[MONTHS];
+        double[] balance = new double[MONTHS];
+        for (int i = 0; i < 1_000 && ok; i++) {
+            engine.fill(principal[i], rate[i], MONTHS, emi, paid, interest, balance);
+            long paidPaise = 0;
+            for (double value : paid) {
+                paidPaise += Math.round(value * 100);
+            }
+            ok = paidPaise == Math.round(principal[i] * 100) && balance[MONTHS - 1] == 0
+                    && Math.abs(emi[0] - engine.emi(principal[i], rate[i], MONTHS)) < 0.005;
+        }
+        System.out.println(ok ? "schedules verified: EMI formula, principal sums to the loan, zero final balance"
+                : "schedule verification FAILED");
+        return ok;
+    }
+
+    private static void measure(String mode, Run run) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        double total = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            total = run.run();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            bestBytes = Math.min(bestBytes, threads.getCurrentThreadAllocatedBytes() - bytes);
+        }
+        double rows = (double) LOANS * MONTHS;
+        System.out.printf("%-10s %14.1f %14.1f %,18.2f%n", mode, bestNanos / rows, bestBytes / rows, total);
+    }
+
+    private static long scheduleBytes(AmortizationEngine engine) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        List<Installment> rows = new ArrayList<>(MONTHS);
+        engine.iterator(5_000_000, 8.5, MONTHS).forEachRemaining(rows::add);
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    interface Run {
+        double run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.learning.patterns.factory;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Reducing-balance amortization
+ * - EMI = P * r * (1 + r)^n / ((1 + r)^n - 1), with r the monthly rate
+ *   (annual % / 1200) and n the tenure in months; P / n when the rate is 0.
+ * - Each month: interest = balance * r, principal = EMI - interest. Amounts are
+ *   kept in paise and rounded half-up per installment; the last installment
+ *   clears whatever balance is left, so the principal column sums exactly to P.
+ * - Schedules are produced one row at a time:
+ *   - schedule() / iterator() : lazy Stream / Iterator of Installment records.
+ *   - forEachInstallment()    : primitive callback, no allocation per row.
+ *   - fill() / summarize()    : primitive-array bulk mode for reports, one loan's
+ *                               columns or the EMI and total interest of many loans.
+ * - Every entry point validates through emiPaise(): principal and rate finite
+ *   and non-negative, tenure at least one month; IllegalArgumentException
+ *   otherwise (a NaN rate fails too, it is never >= 0).
+ * - Obtained per LoanType through LoanFactory.createAmortizationEngine().
+ */
+public class AmortizationEngine {
+
+    static final AmortizationEngine REDUCING_BALANCE = new AmortizationEngine();
+
+    public double emi(double principal, double annualRatePercent, int months) {
+        return toRupees(emiPaise(toPaise(principal), annualRatePercent, months));
+    }
+
+    public Stream<Installment> schedule(double principal, double annualRatePercent, int months) {
+        Spliterator<Installment> rows = Spliterators.spliterator(iterator(principal, annualRatePercent, months), months,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        return StreamSupport.stream(rows, false);
+    }
+
+    public Iterator<Installment> iterator(double principal, double annualRatePercent, int months) {
+        Walk walk = new Walk(toPaise(principal), annualRatePercent, months);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            public Installment next() {
+                if (!walk.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                walk.advance();
+                return new Installment(walk.number, toRupees(walk.emi), toRupees(walk.principal),
+                        toRupees(walk.interest), toRupees(walk.balance));
+            }
+        };
+    }
+
+    public void forEachInstallment(double principal, double annualRatePercent, int months, InstallmentConsumer consumer) {
+        Walk walk = new Walk(toPaise(principal), annualRatePercent, months);
+        while (walk.hasNext()) {
+            walk.advance();
+            consumer.accept(walk.number, toRupees(walk.emi), toRupees(walk.principal),
+                    toRupees(walk.interest), toRupees(walk.balance));
+        }
+    }
+
+    // Schedule of one loan into columns of length >= months; row i is installment i + 1
+    public void fill(double principal, double annualRatePercent, int months,
+                     double[] emi, double[] principalPaid, double[] interestPaid, double[] balance) {
+        if (emi.length < months || principalPaid.length < months || interestPaid.length < months || balance.length < months) {
+            throw new IllegalArgumentException("Columns must hold " + months + " installments");
+        }
+        Walk walk = new Walk(toPaise(principal), annualRatePercent, months);
+        for (int i = 0; walk.hasNext(); i++) {
+            walk.advance();
+            emi[i] = toRupees(walk.emi);
+            principalPaid[i] = toRupees(walk.principal);
+            interestPaid[i] = toRupees(walk.interest);
+            balance[i] = toRupees(walk.balance);
+        }
+    }
+
+    // EMI and total interest over the whole tenure, for many loans at once
+    public void summarize(double[] principal, double[] annualRatePercent, int[] months,
+                          double[] emi, double[] totalInterest) {
+        int length = principal.length;
+        if (annualRatePercent.length != length || months.length != length || emi.length != length
+                || totalInterest.length != length) {
+            throw new IllegalArgumentException("Array lengths differ");
+        }
+        for (int i = 0; i < length; i++) {
+            Walk walk = new Walk(toPaise(principal[i]), annualRatePercent[i], months[i]);
+            long interest = 0;
+            while (walk.hasNext()) {
+                walk.advance();
+                interest += walk.interest;
+            }
+            emi[i] = toRupees(walk.firstEmi);
+            totalInterest[i] = toRupees(interest);
+        }
+    }
+
+    static long emiPaise(long principalPaise, double annualRatePercent, int months) {
+        if (months < 1 || principalPaise < 0 || !(annualRatePercent >= 0 && annualRatePercent < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Invalid loan: principal=" + principalPaise / 100.0
+                    + ", rate=" + annualRatePercent + ", months=" + months);
+        }
+        double r = annualRatePercent / 1200;
+        if (r == 0) {
+            return Math.round((double) principalPaise / months);
+        }
+        double growth = Math.pow(1 + r, months);
+        return Math.round(principalPaise * r * growth / (growth - 1));
+    }
+
+    // Rejects NaN, infinite and out-of-range principals, which Math.round would turn into 0 or Long.MAX_VALUE
+    private static long toPaise(double rupees) {
+        if (!(Math.abs(rupees) < Long.MAX_VALUE / 100.0)) {
+            throw new IllegalArgumentException("Invalid loan: principal=" + rupees);
+        }
+        return Math.round(rupees * 100);
+    }
+
+    private static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+
+    // Month-by-month state of one loan, in paise
+    private static final class Walk {
+        private final double monthlyRate;
+        private final int months;
+        private final long firstEmi;
+        private int number;
+        private long emi;
+        private long principal;
+        private long interest;
+        private long balance;
+
+        private Walk(long principalPaise, double annualRatePercent, int months) {
+            this.firstEmi = emiPaise(principalPaise, annualRatePercent, months); // validates
+            this.monthlyRate = annualRatePercent / 1200;
+            this.months = months;
+            this.balance = principalPaise;
+        }
+
+        private boolean hasNext() {
+            return number < months;
+        }
+
+        private void advance() {
+            number++;
+            interest = Math.round(balance * monthlyRate);
+            principal = number == months ? balance : Math.min(firstEmi - interest, balance);
+            emi = principal + interest;
+            balance -= principal;
+        }
+    }
+}
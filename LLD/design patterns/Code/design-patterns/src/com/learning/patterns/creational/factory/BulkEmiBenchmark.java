@@ -0,0 +1,115 @@
+package com.learning.patterns.factory;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Scalar vs bulk EMI calculation, batch sizes 1 to 10M.
+ * - First checks that calculateEmis() / BulkEmiCalculator give bit-identical
+ *   results to calculateEmi() for all three calculators (exit 1 if not).
+ * - scalar    : one EmiCalculator.calculateEmi() interface call per loan; the call
+ *               site has seen all three calculators, as in a mixed pricing job.
+ * - bulk      : BulkEmiCalculator.calculate() (sequential below PARALLEL_THRESHOLD
+ *               or on a single-CPU machine).
+ * - forkjoin  : always split into LEAF_SIZE ranges on the common pool.
+ * - ns/loan is the best of several rounds, each covering ~20M loans.
+ */
+public class BulkEmiBenchmark {
+
+    private static final int MAX_BATCH = 10_000_000;
+    private static final int LOANS_PER_ROUND = 20_000_000;
+    private static final int ROUNDS = 5;
+    private static final EmiCalculator[] CALCULATORS = {
+            new PersonalLoanEmiCalculator(), new CarLoanEmiCalculator(), new HomeLoanEmiCalculator()};
+
+    public static void main(String[] args) {
+        double[] principal = new double[MAX_BATCH];
+        double[] rate = new double[MAX_BATCH];
+        int[] tenure = new int[MAX_BATCH];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < MAX_BATCH; i++) {
+            principal[i] = 50_000 + random.nextInt(5_000_000);
+            rate[i] = 6 + random.nextInt(1_200) / 100.0;
+            tenure[i] = 12 * (1 + random.nextInt(30));
+        }
+
+        if (!verify(principal, rate, tenure)) {
+            System.exit(1);
+        }
+
+        EmiCalculator calculator = CALCULATORS[2];
+        System.out.printf("%-10s %12s %12s %12s%n", "batch", "scalar ns", "bulk ns", "forkjoin ns");
+        for (int batch = 1; batch <= MAX_BATCH; batch *= 10) {
+            double[] p = slice(principal, batch);
+            double[] r = slice(rate, batch);
+            int[] t = slice(tenure, batch);
+            double[] emi = new double[batch];
+            double scalar = time(batch, () -> scalar(calculator, p, r, t, emi));
+            double bulk = time(batch, () -> BulkEmiCalculator.calculate(calculator, p, r, t, emi));
+            double forkJoin = time(batch, () -> BulkEmiCalculator.forkJoin(calculator, p, r, t, emi));
+            System.out.printf("%-10s %12.3f %12.3f %12.3f%n", String.format("%,d", batch), scalar, bulk, forkJoin);
+        }
+        System.out.println("common pool parallelism: " + ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    private static boolean verify(double[] principal, double[] rate, int[] tenure) {
+        int n = 1_000_000;
+        double[] p = slice(principal, n);
+        double[] r = slice(rate, n);
+        int[] t = slice(tenure, n);
+        boolean identical = true;
+        for (int round = 0; round < 3; round++) {
+            for (EmiCalculator calculator : CALCULATORS) {
+                double[] expected = new double[n];
+                scalar(calculator, p, r, t, expected);
+                double[][] actual = {
+                        BulkEmiCalculator.calculate(calculator, p, r, t), new double[n], new double[n]};
+                BulkEmiCalculator.forkJoin(calculator, p, r, t, actual[1]);
+                calculator.calculateEmis(p, r, t, actual[2], 0, n);
+                for (double[] emi : actual) {
+                    for (int i = 0; i < n; i++) {
+                        if (Double.doubleToRawLongBits(emi[i]) != Double.doubleToRawLongBits(expected[i])) {
+                            System.out.printf("MISMATCH %s loan %d: scalar %s, bulk %s%n",
+                                    calculator.getClass().getSimpleName(), i, expected[i], emi[i]);
+                            identical = false;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        System.out.println(identical
+                ? "bulk results bit-identical to calculateEmi() for all calculators"
+                : "bulk results differ from calculateEmi()");
+        return identical;
+    }
+
+    private static void scalar(EmiCalculator calculator, double[] principal, double[] rate, int[] tenure, double[] emi) {
+        for (int i = 0; i < principal.length; i++) {
+            emi[i] = calculator.calculateEmi(principal[i], rate[i], tenure[i]);
+        }
+    }
+
+    // Best ns per loan over ROUNDS rounds of ~LOANS_PER_ROUND loans
+    private static double time(int batch, Runnable run) {
+        int calls = Math.max(1, LOANS_PER_ROUND / batch);
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                run.run();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / ((long) calls * batch);
+    }
+
+    private static double[] slice(double[] values, int length) {
+        return Arrays.copyOf(values, length);
+    }
+
+    private static int[] slice(int[] values, int length) {
+        return Arrays.copyOf(values, length);
+    }
+}
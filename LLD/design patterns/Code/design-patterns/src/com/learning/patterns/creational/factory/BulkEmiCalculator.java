@@ -0,0 +1,90 @@
+package com.learning.patterns.factory;
+
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Bulk EMI re-quoting for one loan type
+ * - Inputs and output are primitive arrays (structure of arrays): no Loan objects,
+ *   no boxing, and one virtual call per batch instead of one per loan.
+ * - Each calculator's calculateEmis() loop calls its own calculateEmi(), so
+ *   the results are bit-for-bit those of the scalar call; the JIT inlines it
+ *   and compiles the loop to SIMD instructions.
+ * - Batches of PARALLEL_THRESHOLD loans or more are split into LEAF_SIZE
+ *   ranges on the common ForkJoinPool, when it has more than one worker.
+ */
+public final class BulkEmiCalculator {
+
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+    static final int LEAF_SIZE = 1 << 16;
+
+    private BulkEmiCalculator() {
+    }
+
+    public static double[] calculate(EmiCalculator calculator, double[] principal, double[] rate, int[] tenure) {
+        double[] emi = new double[principal.length];
+        calculate(calculator, principal, rate, tenure, emi);
+        return emi;
+    }
+
+    public static void calculate(EmiCalculator calculator, double[] principal, double[] rate, int[] tenure, double[] emi) {
+        int length = checkLengths(principal, rate, tenure, emi);
+        if (length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new Slice(calculator, principal, rate, tenure, emi, 0, length));
+        } else {
+            calculator.calculateEmis(principal, rate, tenure, emi, 0, length);
+        }
+    }
+
+    // Always splits, whatever the size and pool; for comparing against calculate()
+    static void forkJoin(EmiCalculator calculator, double[] principal, double[] rate, int[] tenure, double[] emi) {
+        int length = checkLengths(principal, rate, tenure, emi);
+        ForkJoinPool.commonPool().invoke(new Slice(calculator, principal, rate, tenure, emi, 0, length));
+    }
+
+    private static int checkLengths(double[] principal, double[] rate, int[] tenure, double[] emi) {
+        int length = principal.length;
+        if (rate.length != length || tenure.length != length || emi.length != length) {
+            throw new IllegalArgumentException("Array lengths differ: principal=" + length + ", rate=" + rate.length
+                    + ", tenure=" + tenure.length + ", emi=" + emi.length);
+        }
+        return length;
+    }
+
+    // ForkJoinTask is Serializable, but a Slice only lives inside one invoke() and is never serialized
+    private static final class Slice extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient EmiCalculator calculator;
+        private final transient double[] principal;
+        private final transient double[] rate;
+        private final transient int[] tenure;
+        private final transient double[] emi;
+        private final transient int from;
+        private final transient int to;
+
+        private Slice(EmiCalculator calculator, double[] principal, double[] rate, int[] tenure, double[] emi,
+                      int from, int to) {
+            this.calculator = calculator;
+            this.principal = principal;
+            this.rate = rate;
+            this.tenure = tenure;
+            this.emi = emi;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                calculator.calculateEmis(principal, rate, tenure, emi, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Slice(calculator, principal, rate, tenure, emi, from, middle),
+                    new Slice(calculator, principal, rate, tenure, emi, middle, to));
+        }
+    }
+}
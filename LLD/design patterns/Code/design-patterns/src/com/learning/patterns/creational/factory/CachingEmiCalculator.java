@@ -0,0 +1,255 @@
+package com.learning.patterns.factory;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/*
+ * Memoizing EmiCalculator decorator
+ * - Wraps any EmiCalculator (one per LoanType) and caches calculateEmi()
+ *   results keyed by the exact (principal, rate, tenure) tuple. Results are
+ *   the delegate's, bit for bit; callers that quote on principal buckets
+ *   simply pass the bucket value.
+ * - Primitive storage, no boxing: every slot has a 64-bit hash tag in `tags`
+ *   and its key, value and recency interleaved in `entries`. A lookup scans
+ *   one cache line of tags, then reads a single entry.
+ * - Bounded and set-associative: a key hashes to one set of WAYS slots, and a
+ *   full set evicts its least recently used slot.
+ * - Hits take no lock: they read under an optimistic StampedLock stamp (locks
+ *   are striped by set) and only fall back to a read lock if a writer raced.
+ *   Recency is updated without the lock; it only guides eviction.
+ * - TinyLFU admission: a count-min sketch of 4-bit counters, halved every
+ *   10 x capacity accesses so old popularity fades, estimates how often each
+ *   key is requested. A new key only replaces the LRU slot if it is requested
+ *   more often, so one-off quotes do not flush popular ones. This is W-TinyLFU
+ *   without the small admission window.
+ * - invalidateAll() (e.g. when a rate table changes) is O(1): it bumps a
+ *   generation number, and entries from older generations count as empty.
+ * - stats(): hits, misses, evictions and rejected admissions.
+ */
+public class CachingEmiCalculator implements EmiCalculator {
+
+    static final int WAYS = 8;
+    private static final int MAX_STRIPES = 64;
+    // Entry layout in `entries`: principal bits, rate bits, generation << 32 | tenure, EMI bits, last used
+    private static final int ENTRY_LONGS = 5;
+    private static final int PRINCIPAL = 0;
+    private static final int RATE = 1;
+    private static final int GENERATION_TENURE = 2;
+    private static final int VALUE = 3;
+    private static final int LAST_USED = 4;
+
+    private final EmiCalculator delegate;
+    private final boolean frequencyAdmission;
+    private final int setMask;
+    private final StampedLock[] locks;
+    private final long[] tags; // 0 = empty slot
+    private final long[] entries;
+    private final FrequencySketch sketch;
+    private volatile int generation;
+    private long tick; // recency clock; racy increments only blur LRU order
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public record CacheStats(long hits, long misses, long evictions, long rejections) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    public CachingEmiCalculator(EmiCalculator delegate, int capacity) {
+        this(delegate, capacity, true);
+    }
+
+    CachingEmiCalculator(EmiCalculator delegate, int capacity, boolean frequencyAdmission) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.delegate = delegate;
+        this.frequencyAdmission = frequencyAdmission;
+        int slots = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+        int sets = slots / WAYS;
+        this.setMask = sets - 1;
+        this.locks = new StampedLock[Math.min(sets, MAX_STRIPES)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new StampedLock();
+        }
+        this.tags = new long[slots];
+        this.entries = new long[slots * ENTRY_LONGS];
+        this.sketch = new FrequencySketch(slots);
+    }
+
+    @Override
+    public double calculateEmi(double principal, double rate, int tenure) {
+        long principalBits = Double.doubleToLongBits(principal);
+        long rateBits = Double.doubleToLongBits(rate);
+        int current = generation;
+        long generationTenure = (long) current << 32 | (tenure & 0xFFFFFFFFL);
+        long tag = tag(principalBits, rateBits, tenure);
+        int base = ((int) tag & setMask) * WAYS;
+        StampedLock lock = locks[(base / WAYS) & (locks.length - 1)];
+        if (frequencyAdmission) {
+            sketch.increment(tag);
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        int slot = find(base, tag, principalBits, rateBits, generationTenure);
+        long valueBits = slot >= 0 ? entries[slot * ENTRY_LONGS + VALUE] : 0;
+        if (!lock.validate(stamp)) {
+            // A writer changed this set while we read it
+            stamp = lock.readLock();
+            try {
+                slot = find(base, tag, principalBits, rateBits, generationTenure);
+                valueBits = slot >= 0 ? entries[slot * ENTRY_LONGS + VALUE] : 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (slot >= 0) {
+            entries[slot * ENTRY_LONGS + LAST_USED] = ++tick;
+            hits.increment();
+            return Double.longBitsToDouble(valueBits);
+        }
+
+        misses.increment();
+        double emi = delegate.calculateEmi(principal, rate, tenure);
+        stamp = lock.writeLock();
+        try {
+            // Another thread may have cached it meanwhile
+            if (find(base, tag, principalBits, rateBits, generationTenure) < 0) {
+                insert(base, tag, principalBits, rateBits, generationTenure, Double.doubleToRawLongBits(emi));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return emi;
+    }
+
+    @Override
+    public void calculateEmis(double[] principal, double[] rate, int[] tenure, double[] emi, int from, int to) {
+        for (int i = from; i < to; i++) {
+            emi[i] = calculateEmi(principal[i], rate[i], tenure[i]);
+        }
+    }
+
+    // Drops every cached quote, e.g. after the rate table behind the delegate changed
+    public synchronized void invalidateAll() {
+        generation++;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), rejections.sum());
+    }
+
+    private int find(int base, long tag, long principalBits, long rateBits, long generationTenure) {
+        for (int slot = base; slot < base + WAYS; slot++) {
+            if (tags[slot] == tag) {
+                int entry = slot * ENTRY_LONGS;
+                if (entries[entry + PRINCIPAL] == principalBits && entries[entry + RATE] == rateBits
+                        && entries[entry + GENERATION_TENURE] == generationTenure) {
+                    return slot;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Called under the set's write lock
+    private void insert(int base, long tag, long principalBits, long rateBits, long generationTenure, long valueBits) {
+        int current = generation;
+        int victim = base;
+        for (int slot = base; slot < base + WAYS; slot++) {
+            if (tags[slot] == 0 || (int) (entries[slot * ENTRY_LONGS + GENERATION_TENURE] >>> 32) != current) {
+                victim = slot;
+                break;
+            }
+            if (entries[slot * ENTRY_LONGS + LAST_USED] < entries[victim * ENTRY_LONGS + LAST_USED]) {
+                victim = slot;
+            }
+        }
+        int entry = victim * ENTRY_LONGS;
+        if (tags[victim] != 0 && (int) (entries[entry + GENERATION_TENURE] >>> 32) == current) {
+            if (frequencyAdmission && sketch.frequency(tag) <= sketch.frequency(tags[victim])) {
+                rejections.increment();
+                return;
+            }
+            evictions.increment();
+        }
+        tags[victim] = tag;
+        entries[entry + PRINCIPAL] = principalBits;
+        entries[entry + RATE] = rateBits;
+        entries[entry + GENERATION_TENURE] = generationTenure;
+        entries[entry + VALUE] = valueBits;
+        entries[entry + LAST_USED] = ++tick;
+    }
+
+    // Hash of the key tuple; never 0, which marks an empty slot
+    private static long tag(long principalBits, long rateBits, int tenure) {
+        long h = principalBits * 0x9E3779B97F4A7C15L;
+        h = (h ^ rateBits) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ tenure) * 0x165667B19E3779F9L;
+        h ^= h >>> 29;
+        return h == 0 ? 1 : h;
+    }
+
+    // Count-min sketch of 4-bit counters. The four counters of a key sit in one
+    // 64-byte block of 8 longs, so a key costs one cache line. Updates from
+    // different threads may race; the counts are estimates anyway.
+    private static final class FrequencySketch {
+        private static final long HALF_MASK = 0x7777_7777_7777_7777L;
+
+        private final long[] table;
+        private final int blockMask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int slots) {
+            int blocks = Math.max(8, slots / 4);
+            this.table = new long[blocks * 8];
+            this.blockMask = blocks - 1;
+            this.sampleSize = 10 * slots;
+        }
+
+        private void increment(long hash) {
+            int block = ((int) (hash >>> 32) & blockMask) << 3;
+            long spread = hash * 0xBF58476D1CE4E5B9L;
+            for (int row = 0; row < 4; row++) {
+                int bits = (int) (spread >>> (row << 3));
+                int index = block + (row << 1) + (bits & 1);
+                int offset = ((bits >>> 1) & 15) << 2;
+                if (((table[index] >>> offset) & 15) < 15) {
+                    table[index] += 1L << offset;
+                }
+            }
+            if (++additions >= sampleSize) {
+                halve();
+            }
+        }
+
+        private int frequency(long hash) {
+            int block = ((int) (hash >>> 32) & blockMask) << 3;
+            long spread = hash * 0xBF58476D1CE4E5B9L;
+            int min = 15;
+            for (int row = 0; row < 4; row++) {
+                int bits = (int) (spread >>> (row << 3));
+                int index = block + (row << 1) + (bits & 1);
+                min = Math.min(min, (int) (table[index] >>> (((bits >>> 1) & 15) << 2)) & 15);
+            }
+            return min;
+        }
+
+        // Ages the counts so keys that were popular long ago can be evicted
+        private synchronized void halve() {
+            if (additions < sampleSize) {
+                return;
+            }
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & HALF_MASK;
+            }
+            additions = 0;
+        }
+    }
+}
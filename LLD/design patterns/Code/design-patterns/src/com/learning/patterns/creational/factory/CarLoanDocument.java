@@ -3,4 +3,7 @@ package com.learning.patterns.factory;
 public class CarLoanDocument implements LoanDocument {
     @Override
     public String getDocument() { return "Car Loan Agreement"; }
+
+    @Override
+    public String getSecurityClause() { return "The vehicle financed is hypothecated to the Lender until the loan is repaid in full."; }
 }
\ No newline at end of file
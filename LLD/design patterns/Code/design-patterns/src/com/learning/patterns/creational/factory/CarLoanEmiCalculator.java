@@ -5,4 +5,12 @@ public class CarLoanEmiCalculator implements EmiCalculator {
     public double calculateEmi(double principal, double rate, int tenure) {
         return (principal * rate * tenure) / 120; // simplified
     }
+
+    // Monomorphic copy of the default loop, see EmiCalculator.calculateEmis
+    @Override
+    public void calculateEmis(double[] principal, double[] rate, int[] tenure, double[] emi, int from, int to) {
+        for (int i = from; i < to; i++) {
+            emi[i] = calculateEmi(principal[i], rate[i], tenure[i]);
+        }
+    }
 }
\ No newline at end of file
@@ -1,13 +1,17 @@
 package com.learning.patterns.factory;
 
 public class CarLoanFactory implements LoanFactory {
+    // Stateless products, shared by every caller
+    private static final EmiCalculator EMI_CALCULATOR = new CarLoanEmiCalculator();
+    private static final LoanDocument LOAN_DOCUMENT = new CarLoanDocument();
+
     @Override
     public EmiCalculator createEmiCalculator() {
-        return new CarLoanEmiCalculator();
+        return EMI_CALCULATOR;
     }
 
     @Override
     public LoanDocument createLoanDocument() {
-        return new CarLoanDocument();
+        return LOAN_DOCUMENT;
     }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.learning.patterns.factory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/*
+ * Rendering a batch of LOANS agreements (all loan types) into one file.
+ * - naive    : per loan, String.replace() of every placeholder on the template
+ *              text, then written through a BufferedWriter.
+ * - writer   : LoanDocumentRenderer.render() straight into the BufferedWriter
+ *              (the Appendable path).
+ * - channel  : LoanDocumentRenderer.renderAll(): ByteBuffer + FileChannel.
+ * - Checks that all three files are byte-identical (exit 1 otherwise).
+ * - Reports documents per second and bytes allocated per document, best of
+ *   several rounds.
+ */
+public class DocumentRenderBenchmark {
+
+    private static final int LOANS = 100_000;
+    private static final int ROUNDS = 5;
+    private static final String[] NAMES = {"Aarav Sharma", "Diya Patel", "Rohan Iyer", "Saanvi Reddy", "Kabir Singh",
+            "Ananya Gupta", "Vivaan Nair", "Ishita Bose", "Arjun Mehta", "Zoë Fernandes"};
+
+    public static void main(String[] args) throws IOException {
+        List<LoanAgreement> loans = new ArrayList<>(LOANS);
+        SplittableRandom random = new SplittableRandom(3);
+        LoanType[] types = LoanType.values();
+        for (int i = 0; i < LOANS; i++) {
+            LoanType type = types[random.nextInt(types.length)];
+            loans.add(new LoanAgreement(type, String.format("LN%08d", i), NAMES[random.nextInt(NAMES.length)],
+                    100_000 + 1_000 * random.nextInt(5_000), 7 + random.nextInt(800) / 100.0,
+                    12 * (1 + random.nextInt(type == LoanType.HOME ? 30 : 7))));
+        }
+        LoanDocumentRenderer renderer = new LoanDocumentRenderer();
+        Path naiveFile = Files.createTempFile("agreements-naive", ".txt");
+        Path writerFile = Files.createTempFile("agreements-writer", ".txt");
+        Path channelFile = Files.createTempFile("agreements-channel", ".txt");
+        try {
+            System.out.printf("%-8s %12s %12s%n", "mode", "docs/s", "B/doc");
+            measure("naive", () -> {
+                try (Writer writer = Files.newBufferedWriter(naiveFile, StandardCharsets.UTF_8)) {
+                    for (LoanAgreement loan : loans) {
+                        writer.write(naive(loan));
+                        writer.write('\f');
+                    }
+                }
+            });
+            measure("writer", () -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(writerFile, StandardCharsets.UTF_8)) {
+                    for (LoanAgreement loan : loans) {
+                        renderer.render(loan, writer);
+                        writer.write('\f');
+                    }
+                }
+            });
+            measure("channel", () -> renderer.renderAll(loans, channelFile));
+
+            byte[] expected = Files.readAllBytes(naiveFile);
+            boolean identical = Arrays.equals(expected, Files.readAllBytes(writerFile))
+                    && Arrays.equals(expected, Files.readAllBytes(channelFile));
+            System.out.printf("%s (%,d bytes, %,d agreements)%n", identical ? "files identical" : "FILES DIFFER",
+                    expected.length, LOANS);
+            if (!identical) {
+                System.exit(1);
+            }
+        } finally {
+            Files.deleteIfExists(naiveFile);
+            Files.deleteIfExists(writerFile);
+            Files.deleteIfExists(channelFile);
+        }
+    }
+
+    // What rendering looks like without a compiled template
+    private static String naive(LoanAgreement loan) {
+        LoanFactory factory = LoanFactoryProducer.getLoanFactory(loan.type());
+        double emi = factory.createAmortizationEngine().emi(loan.principal(), loan.annualRatePercent(), loan.tenureMonths());
+        return factory.createLoanDocument().getTemplate()
+                .replace("{{loanNumber}}", loan.loanNumber())
+                .replace("{{customerName}}", loan.customerName())
+                .replace("{{principal}}", String.format(Locale.ROOT, "%.2f", loan.principal()))
+                .replace("{{rate}}", String.format(Locale.ROOT, "%.2f", loan.annualRatePercent()))
+                .replace("{{tenure}}", Integer.toString(loan.tenureMonths()))
+                .replace("{{emi}}", String.format(Locale.ROOT, "%.2f", emi));
+    }
+
+    private static void measure(String mode, Run run) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            run.run();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            bestBytes = Math.min(bestBytes, threads.getCurrentThreadAllocatedBytes() - bytes);
+        }
+        System.out.printf("%-8s %,12.0f %,12.0f%n", mode, LOANS / (bestNanos / 1e9), (double) bestBytes / LOANS);
+    }
+
+    interface Run {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,195 @@
+package com.learning.patterns.factory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Precompiled agreement template
+ * - compile() parses the text once into alternating literal segments and
+ *   fields: literal[0] field[0] literal[1] ... literal[n]. Placeholders are
+ *   {{name}}; an unknown name or an unclosed placeholder fails at compile time.
+ * - Literals are kept both as Strings and pre-encoded UTF-8 bytes.
+ * - render() writes segments and field values straight into the caller's
+ *   Appendable or ByteBuffer: amounts, rates and tenures are written digit by
+ *   digit and names are UTF-8 encoded in place, so no String is built per
+ *   document. Amounts and rates are shown with two decimals.
+ */
+public final class DocumentTemplate {
+
+    // Longest rendering of a number: sign, 19 digits, point and decimals
+    private static final int MAX_NUMBER_BYTES = 24;
+
+    enum Field {
+        LOAN_NUMBER("loanNumber"), CUSTOMER_NAME("customerName"), PRINCIPAL("principal"),
+        RATE("rate"), TENURE("tenure"), EMI("emi");
+
+        private final String placeholder;
+
+        Field(String placeholder) {
+            this.placeholder = placeholder;
+        }
+    }
+
+    private final String[] literals;
+    private final byte[][] encodedLiterals;
+    private final Field[] fields;
+    private final int literalBytes;
+
+    private DocumentTemplate(String[] literals, Field[] fields) {
+        this.literals = literals;
+        this.fields = fields;
+        this.encodedLiterals = new byte[literals.length][];
+        int bytes = 0;
+        for (int i = 0; i < literals.length; i++) {
+            encodedLiterals[i] = literals[i].getBytes(StandardCharsets.UTF_8);
+            bytes += encodedLiterals[i].length;
+        }
+        this.literalBytes = bytes;
+    }
+
+    public static DocumentTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<Field> fields = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = template.indexOf("{{", from)) >= 0) {
+            int close = template.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at index " + open);
+            }
+            literals.add(template.substring(from, open));
+            fields.add(field(template.substring(open + 2, close).trim()));
+            from = close + 2;
+        }
+        literals.add(template.substring(from));
+        return new DocumentTemplate(literals.toArray(new String[0]), fields.toArray(new Field[0]));
+    }
+
+    private static Field field(String name) {
+        for (Field field : Field.values()) {
+            if (field.placeholder.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown placeholder: {{" + name + "}}");
+    }
+
+    // Upper bound of the UTF-8 size of this loan's document
+    public int maxBytes(LoanAgreement loan) {
+        int bytes = literalBytes;
+        for (Field field : fields) {
+            bytes += switch (field) {
+                case LOAN_NUMBER -> 3 * loan.loanNumber().length();
+                case CUSTOMER_NAME -> 3 * loan.customerName().length();
+                default -> MAX_NUMBER_BYTES;
+            };
+        }
+        return bytes;
+    }
+
+    public void render(LoanAgreement loan, double emi, Appendable out) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            out.append(literals[i]);
+            switch (fields[i]) {
+                case LOAN_NUMBER -> out.append(loan.loanNumber());
+                case CUSTOMER_NAME -> out.append(loan.customerName());
+                case PRINCIPAL -> appendDecimal(out, loan.principal());
+                case RATE -> appendDecimal(out, loan.annualRatePercent());
+                case TENURE -> appendDigits(out, loan.tenureMonths());
+                case EMI -> appendDecimal(out, emi);
+            }
+        }
+        out.append(literals[fields.length]);
+    }
+
+    // Throws BufferOverflowException if fewer than maxBytes(loan) bytes remain and the document does not fit
+    public void render(LoanAgreement loan, double emi, ByteBuffer out) {
+        for (int i = 0; i < fields.length; i++) {
+            out.put(encodedLiterals[i]);
+            switch (fields[i]) {
+                case LOAN_NUMBER -> putUtf8(out, loan.loanNumber());
+                case CUSTOMER_NAME -> putUtf8(out, loan.customerName());
+                case PRINCIPAL -> putDecimal(out, loan.principal());
+                case RATE -> putDecimal(out, loan.annualRatePercent());
+                case TENURE -> putDigits(out, loan.tenureMonths());
+                case EMI -> putDecimal(out, emi);
+            }
+        }
+        out.put(encodedLiterals[fields.length]);
+    }
+
+    private static void appendDecimal(Appendable out, double value) throws IOException {
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            out.append('-');
+            hundredths = -hundredths;
+        }
+        appendDigits(out, hundredths / 100);
+        out.append('.');
+        out.append((char) ('0' + hundredths / 10 % 10));
+        out.append((char) ('0' + hundredths % 10));
+    }
+
+    private static void appendDigits(Appendable out, long value) throws IOException {
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        for (long unit = largestPowerOfTen(value); unit > 0; unit /= 10) {
+            out.append((char) ('0' + value / unit % 10));
+        }
+    }
+
+    private static void putDecimal(ByteBuffer out, double value) {
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            out.put((byte) '-');
+            hundredths = -hundredths;
+        }
+        putDigits(out, hundredths / 100);
+        out.put((byte) '.');
+        out.put((byte) ('0' + hundredths / 10 % 10));
+        out.put((byte) ('0' + hundredths % 10));
+    }
+
+    private static void putDigits(ByteBuffer out, long value) {
+        if (value < 0) {
+            out.put((byte) '-');
+            value = -value;
+        }
+        for (long unit = largestPowerOfTen(value); unit > 0; unit /= 10) {
+            out.put((byte) ('0' + value / unit % 10));
+        }
+    }
+
+    private static long largestPowerOfTen(long value) {
+        long unit = 1;
+        while (value / unit >= 10) {
+            unit *= 10;
+        }
+        return unit;
+    }
+
+    private static void putUtf8(ByteBuffer out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                out.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?'); // unpaired surrogate, as String.getBytes(UTF_8) does
+            } else {
+                out.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+}
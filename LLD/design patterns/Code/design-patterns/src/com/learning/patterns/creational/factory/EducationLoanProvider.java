@@ -0,0 +1,34 @@
+package com.learning.patterns.factory;
+
+/*
+ * Example plug-in loan type, discovered through
+ * META-INF/services/com.learning.patterns.factory.LoanFactoryProvider
+ * without any change to LoanType or LoanFactoryProducer.
+ */
+public class EducationLoanProvider implements LoanFactoryProvider {
+
+    private static final LoanFactory FACTORY = new LoanFactory() {
+        private final EmiCalculator emiCalculator = (principal, rate, tenure) -> (principal * rate * tenure) / 150; // simplified
+        private final LoanDocument loanDocument = () -> "Education Loan Agreement";
+
+        @Override
+        public EmiCalculator createEmiCalculator() {
+            return emiCalculator;
+        }
+
+        @Override
+        public LoanDocument createLoanDocument() {
+            return loanDocument;
+        }
+    };
+
+    @Override
+    public String loanType() {
+        return "EDUCATION";
+    }
+
+    @Override
+    public LoanFactory createLoanFactory() {
+        return FACTORY;
+    }
+}
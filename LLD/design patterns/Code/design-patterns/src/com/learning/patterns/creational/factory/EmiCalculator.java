@@ -2,4 +2,16 @@ package com.learning.patterns.factory;
 
 public interface EmiCalculator {
     double calculateEmi(double principal, double rate, int tenure);
-}
\ No newline at end of file
+
+    // Bulk form: emi[i] = calculateEmi(principal[i], rate[i], tenure[i]) for i in [from, to).
+    // Every calculator overrides it with this same loop on purpose. This default's
+    // calculateEmi() call site is shared by all calculators, so its profile is
+    // megamorphic and it stays a virtual call per loan; a copy in the calculator
+    // only ever sees that one class, so the JIT inlines calculateEmi() and
+    // vectorizes the loop.
+    default void calculateEmis(double[] principal, double[] rate, int[] tenure, double[] emi, int from, int to) {
+        for (int i = from; i < to; i++) {
+            emi[i] = calculateEmi(principal[i], rate[i], tenure[i]);
+        }
+    }
+}
@@ -3,4 +3,7 @@ package com.learning.patterns.factory;
 public class HomeLoanDocument implements LoanDocument {
     @Override
     public String getDocument() { return "Home Loan Agreement"; }
+
+    @Override
+    public String getSecurityClause() { return "The property financed is mortgaged to the Lender until the loan is repaid in full."; }
 }
\ No newline at end of file
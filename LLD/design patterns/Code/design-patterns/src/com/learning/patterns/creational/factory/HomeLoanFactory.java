@@ -1,13 +1,17 @@
 package com.learning.patterns.factory;
 
 public class HomeLoanFactory implements LoanFactory {
+    // Stateless products, shared by every caller
+    private static final EmiCalculator EMI_CALCULATOR = new HomeLoanEmiCalculator();
+    private static final LoanDocument LOAN_DOCUMENT = new HomeLoanDocument();
+
     @Override
     public EmiCalculator createEmiCalculator() {
-        return new HomeLoanEmiCalculator();
+        return EMI_CALCULATOR;
     }
 
     @Override
     public LoanDocument createLoanDocument() {
-        return new HomeLoanDocument();
+        return LOAN_DOCUMENT;
     }
 }
\ No newline at end of file
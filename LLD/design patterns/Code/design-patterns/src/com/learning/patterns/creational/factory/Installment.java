@@ -0,0 +1,5 @@
+package com.learning.patterns.factory;
+
+// One row of an amortization schedule; amounts in rupees, rounded to paise.
+public record Installment(int number, double emi, double principal, double interest, double balance) {
+}
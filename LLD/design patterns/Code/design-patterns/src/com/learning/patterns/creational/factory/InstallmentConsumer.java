@@ -0,0 +1,7 @@
+package com.learning.patterns.factory;
+
+// Receives schedule rows as primitives, so walking a schedule allocates nothing.
+@FunctionalInterface
+public interface InstallmentConsumer {
+    void accept(int number, double emi, double principal, double interest, double balance);
+}
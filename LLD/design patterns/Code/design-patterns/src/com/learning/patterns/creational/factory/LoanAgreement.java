@@ -0,0 +1,6 @@
+package com.learning.patterns.factory;
+
+// Customer and loan fields filled into an agreement; rate is annual %, tenure in months.
+public record LoanAgreement(LoanType type, String loanNumber, String customerName,
+                            double principal, double annualRatePercent, int tenureMonths) {
+}
@@ -2,4 +2,24 @@ package com.learning.patterns.factory;
 
 public interface LoanDocument {
     String getDocument();
-}
\ No newline at end of file
+
+    // Full agreement with {{field}} placeholders, compiled once by LoanDocumentRenderer
+    default String getTemplate() {
+        return getDocument().toUpperCase() + """
+
+                Agreement No   : {{loanNumber}}
+                Borrower       : {{customerName}}
+                Principal      : INR {{principal}}
+                Interest rate  : {{rate}}% p.a., reducing balance
+                Tenure         : {{tenure}} months
+                Monthly EMI    : INR {{emi}}
+
+                The Borrower agrees to repay the principal with interest in {{tenure}} equated
+                monthly instalments of INR {{emi}} each, the last instalment adjusted for rounding.
+                """ + getSecurityClause() + "\n";
+    }
+
+    default String getSecurityClause() {
+        return "This loan is unsecured.";
+    }
+}
@@ -0,0 +1,88 @@
+package com.learning.patterns.factory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+ * Renders loan agreements from templates compiled once per LoanType
+ * - On construction, each LoanType's LoanDocument template (from its factory)
+ *   is compiled into a DocumentTemplate; the EMI printed on the agreement comes
+ *   from the same factory's AmortizationEngine.
+ * - render() writes one agreement into the caller's Appendable or ByteBuffer,
+ *   which can be reused across documents.
+ * - renderAll() is the bulk mode: a batch of agreements, separated by form
+ *   feeds, written to one file through a single reusable direct buffer and a
+ *   FileChannel. The buffer is flushed only when the next document might not
+ *   fit (DocumentTemplate.maxBytes).
+ */
+public class LoanDocumentRenderer {
+
+    static final int BUFFER_BYTES = 256 * 1024;
+    private static final byte PAGE_BREAK = '\f';
+
+    private final Map<LoanType, DocumentTemplate> templates = new EnumMap<>(LoanType.class);
+    private final Map<LoanType, AmortizationEngine> engines = new EnumMap<>(LoanType.class);
+
+    public LoanDocumentRenderer() {
+        for (LoanType type : LoanType.values()) {
+            LoanFactory factory = LoanFactoryProducer.getLoanFactory(type);
+            templates.put(type, DocumentTemplate.compile(factory.createLoanDocument().getTemplate()));
+            engines.put(type, factory.createAmortizationEngine());
+        }
+    }
+
+    public DocumentTemplate template(LoanType type) {
+        return templates.get(type);
+    }
+
+    public void render(LoanAgreement loan, Appendable out) throws IOException {
+        templates.get(loan.type()).render(loan, emi(loan), out);
+    }
+
+    public void render(LoanAgreement loan, ByteBuffer out) {
+        templates.get(loan.type()).render(loan, emi(loan), out);
+    }
+
+    // Writes every agreement to `file` (replacing it); returns the number of bytes written
+    public long renderAll(Iterable<LoanAgreement> loans, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (LoanAgreement loan : loans) {
+                DocumentTemplate template = templates.get(loan.type());
+                int maxBytes = template.maxBytes(loan) + 1;
+                if (maxBytes > BUFFER_BYTES) {
+                    throw new IllegalArgumentException("Agreement " + loan.loanNumber() + " may exceed "
+                            + BUFFER_BYTES + " bytes");
+                }
+                if (buffer.remaining() < maxBytes) {
+                    written += drain(buffer, channel);
+                }
+                template.render(loan, emi(loan), buffer);
+                buffer.put(PAGE_BREAK);
+            }
+            written += drain(buffer, channel);
+        }
+        return written;
+    }
+
+    private double emi(LoanAgreement loan) {
+        return engines.get(loan.type()).emi(loan.principal(), loan.annualRatePercent(), loan.tenureMonths());
+    }
+
+    private static int drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return bytes;
+    }
+}
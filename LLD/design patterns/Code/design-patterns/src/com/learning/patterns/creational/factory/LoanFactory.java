@@ -3,4 +3,9 @@ package com.learning.patterns.factory;
 public interface LoanFactory {
     EmiCalculator createEmiCalculator();
     LoanDocument createLoanDocument();
+
+    // Reducing-balance schedule for every loan type unless a factory overrides it
+    default AmortizationEngine createAmortizationEngine() {
+        return AmortizationEngine.REDUCING_BALANCE;
+    }
 }
\ No newline at end of file
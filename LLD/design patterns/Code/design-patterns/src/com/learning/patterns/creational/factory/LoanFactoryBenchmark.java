@@ -0,0 +1,128 @@
+package com.learning.patterns.factory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Registry-based LoanFactoryProducer vs the previous one (a new factory and a
+ * new calculator per call, kept below as LegacyLoanFactoryProducer).
+ * - startup : time of the first quote in a fresh JVM (class loading and
+ *             registry set-up included), median of STARTS child JVMs each for
+ *             legacy, registry (LoanType lookup) and plugin (first lookup by
+ *             name, which runs ServiceLoader discovery).
+ * - per quote : getLoanFactory(type).createEmiCalculator().calculateEmi() over
+ *             all loan types in turn; ns and bytes allocated per quote, best
+ *             of several rounds.
+ */
+public class LoanFactoryBenchmark {
+
+    private static final int STARTS = 5;
+    private static final int QUOTES = 10_000_000;
+    private static final int ROUNDS = 5;
+    private static final LoanType[] TYPES = LoanType.values();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            long start = System.nanoTime();
+            double emi = switch (args[0]) {
+                case "legacy" -> LegacyLoanFactoryProducer.getLoanFactory(LoanType.HOME).createEmiCalculator()
+                        .calculateEmi(5_000_000, 8.5, 240);
+                case "registry" -> LoanFactoryProducer.getLoanFactory(LoanType.HOME).createEmiCalculator()
+                        .calculateEmi(5_000_000, 8.5, 240);
+                default -> LoanFactoryProducer.getLoanFactory("EDUCATION").createEmiCalculator()
+                        .calculateEmi(500_000, 9, 60);
+            };
+            System.out.println((System.nanoTime() - start) + " " + emi);
+            return;
+        }
+
+        System.out.printf("%-10s %16s%n", "startup", "first quote us");
+        for (String mode : new String[]{"legacy", "registry", "plugin"}) {
+            long[] micros = new long[STARTS];
+            for (int i = 0; i < STARTS; i++) {
+                micros[i] = startChild(mode) / 1_000;
+            }
+            Arrays.sort(micros);
+            System.out.printf("%-10s %,16d%n", mode, micros[STARTS / 2]);
+        }
+
+        System.out.printf("%n%-10s %12s %12s%n", "per quote", "ns/quote", "B/quote");
+        measure("legacy", true);
+        measure("registry", false);
+        System.out.println("loan types: " + LoanFactoryProducer.loanTypes());
+    }
+
+    private static long startChild(String mode) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoanFactoryBenchmark.class.getName());
+        command.add(mode);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes()).trim();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(mode + " child failed: " + output);
+        }
+        return Long.parseLong(output.split(" ")[0]);
+    }
+
+    private static void measure(String mode, boolean legacy) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = Long.MAX_VALUE;
+        double sum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < QUOTES; i++) {
+                LoanType type = TYPES[i % TYPES.length];
+                LoanFactory factory = legacy ? LegacyLoanFactoryProducer.getLoanFactory(type)
+                        : LoanFactoryProducer.getLoanFactory(type);
+                sum += factory.createEmiCalculator().calculateEmi(100_000 + i % 1_000, 10, 12);
+            }
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            bestBytes = Math.min(bestBytes, threads.getCurrentThreadAllocatedBytes() - bytes);
+        }
+        System.out.printf("%-10s %12.1f %12.1f%n", mode, (double) bestNanos / QUOTES, (double) bestBytes / QUOTES);
+        if (sum == 42) {
+            System.out.println();
+        }
+    }
+
+    // LoanFactoryProducer before the registry: new factory and new products on every call
+    static class LegacyLoanFactoryProducer {
+        static LoanFactory getLoanFactory(LoanType type) {
+            return new LegacyLoanFactory(type);
+        }
+    }
+
+    static class LegacyLoanFactory implements LoanFactory {
+        private final LoanType type;
+
+        LegacyLoanFactory(LoanType type) {
+            this.type = type;
+        }
+
+        @Override
+        public EmiCalculator createEmiCalculator() {
+            return switch (type) {
+                case PERSONAL -> new PersonalLoanEmiCalculator();
+                case CAR -> new CarLoanEmiCalculator();
+                case HOME -> new HomeLoanEmiCalculator();
+            };
+        }
+
+        @Override
+        public LoanDocument createLoanDocument() {
+            return switch (type) {
+                case PERSONAL -> new PersonalLoanDocument();
+                case CAR -> new CarLoanDocument();
+                case HOME -> new HomeLoanDocument();
+            };
+        }
+    }
+}
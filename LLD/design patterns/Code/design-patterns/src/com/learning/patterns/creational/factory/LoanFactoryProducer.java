@@ -1,11 +1,105 @@
 package com.learning.patterns.factory;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+ * Registry of loan factories
+ * - Built once: one shared factory per LoanType in an EnumMap (an array
+ *   indexed by ordinal), so getLoanFactory(LoanType) allocates nothing.
+ *   Factories, calculators and documents are stateless and shared.
+ * - Plug-in loan types are discovered with ServiceLoader (LoanFactoryProvider)
+ *   the first time one is looked up by name, so startup and LoanType lookups
+ *   never scan the classpath.
+ * - Built-in types win: a provider named after a LoanType, a second provider
+ *   for the same name, or one that fails to load is logged and skipped, so a
+ *   bad plug-in never breaks lookups of the other types.
+ */
 public class LoanFactoryProducer {
+
+    private static final Map<LoanType, LoanFactory> FACTORIES = new EnumMap<>(LoanType.class);
+
+    static {
+        FACTORIES.put(LoanType.PERSONAL, new PersonalLoanFactory());
+        FACTORIES.put(LoanType.CAR, new CarLoanFactory());
+        FACTORIES.put(LoanType.HOME, new HomeLoanFactory());
+        for (LoanType type : LoanType.values()) {
+            if (!FACTORIES.containsKey(type)) {
+                throw new IllegalStateException("No loan factory registered for " + type);
+            }
+        }
+    }
+
     public static LoanFactory getLoanFactory(LoanType type) {
-        return switch (type) {
-            case PERSONAL -> new PersonalLoanFactory();
-            case CAR -> new CarLoanFactory();
-            case HOME -> new HomeLoanFactory();
-        };
+        return FACTORIES.get(Objects.requireNonNull(type, "type")); // EnumMap.get(null) would just return null
+    }
+
+    // Built-in or plug-in loan type, by name (e.g. "HOME", "EDUCATION")
+    public static LoanFactory getLoanFactory(String type) {
+        LoanFactory factory = Plugins.BY_NAME.get(type);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown loan type: " + type);
+        }
+        return factory;
+    }
+
+    public static Set<String> loanTypes() {
+        return Collections.unmodifiableSet(new TreeSet<>(Plugins.BY_NAME.keySet()));
+    }
+
+    // Built-in and discovered loan types by name; loaded on first lookup by name
+    private static final class Plugins {
+        private static final Map<String, LoanFactory> BY_NAME = new HashMap<>();
+
+        static {
+            FACTORIES.forEach((type, factory) -> BY_NAME.put(type.name(), factory));
+            Iterator<LoanFactoryProvider> providers = ServiceLoader.load(LoanFactoryProvider.class).iterator();
+            while (true) {
+                LoanFactoryProvider provider;
+                try {
+                    if (!providers.hasNext()) {
+                        break;
+                    }
+                    provider = providers.next();
+                } catch (ServiceConfigurationError e) {
+                    // The failed entry is consumed; carry on with the next one
+                    System.err.println("Skipping loan factory provider: " + e.getMessage());
+                    continue;
+                }
+                register(provider);
+            }
+        }
+
+        private static void register(LoanFactoryProvider provider) {
+            String providerName = provider.getClass().getName();
+            try {
+                String type = provider.loanType();
+                if (type == null || type.isBlank()) {
+                    System.err.println("Skipping loan factory provider " + providerName + ": no loan type");
+                    return;
+                }
+                if (BY_NAME.containsKey(type)) {
+                    System.err.println("Skipping loan factory provider " + providerName
+                            + ": loan type " + type + " is already registered");
+                    return;
+                }
+                LoanFactory factory = provider.createLoanFactory();
+                if (factory == null) {
+                    System.err.println("Skipping loan factory provider " + providerName + ": no factory for " + type);
+                    return;
+                }
+                BY_NAME.put(type, factory);
+            } catch (RuntimeException e) {
+                System.err.println("Skipping loan factory provider " + providerName + ": " + e);
+            }
+        }
     }
-}
\ No newline at end of file
+}
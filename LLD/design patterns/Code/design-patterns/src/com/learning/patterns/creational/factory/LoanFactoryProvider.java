@@ -0,0 +1,11 @@
+package com.learning.patterns.factory;
+
+// Plug-in point for loan types: list implementations in
+// META-INF/services/com.learning.patterns.factory.LoanFactoryProvider.
+public interface LoanFactoryProvider {
+    // Name of the loan type. Built-in LoanType names are reserved: a provider
+    // using one is skipped, so both getLoanFactory overloads agree.
+    String loanType();
+
+    LoanFactory createLoanFactory();
+}
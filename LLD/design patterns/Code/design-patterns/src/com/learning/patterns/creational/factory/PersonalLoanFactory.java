@@ -1,13 +1,17 @@
 package com.learning.patterns.factory;
 
 public class PersonalLoanFactory implements LoanFactory {
+    // Stateless products, shared by every caller
+    private static final EmiCalculator EMI_CALCULATOR = new PersonalLoanEmiCalculator();
+    private static final LoanDocument LOAN_DOCUMENT = new PersonalLoanDocument();
+
     @Override
     public EmiCalculator createEmiCalculator() {
-        return new PersonalLoanEmiCalculator();
+        return EMI_CALCULATOR;
     }
 
     @Override
     public LoanDocument createLoanDocument() {
-        return new PersonalLoanDocument();
+        return LOAN_DOCUMENT;
     }
 }
\ No newline at end of file
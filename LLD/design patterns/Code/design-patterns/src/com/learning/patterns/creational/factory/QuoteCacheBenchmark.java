@@ -0,0 +1,134 @@
+package com.learning.patterns.factory;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ * CachingEmiCalculator under a Zipfian quote workload.
+ * - DISTINCT (principal bucket, rate, tenure) tuples from a realistic grid;
+ *   QUOTES requests drawn from them with Zipf exponent 0.99 (a few tuples are
+ *   requested constantly, most rarely). The cache holds CAPACITY quotes.
+ * - Checks first that cached results equal the delegate's bit for bit and
+ *   that invalidateAll() drops everything (exit 1 otherwise).
+ * - fresh      : LoanFactoryProducer -> new calculator per quote (current code).
+ * - reducing   : reducing-balance EMI (AmortizationEngine.emi, one Math.pow).
+ * - schedule   : largest installment of the full schedule (walks every month).
+ * - lru / tinylfu : CachingEmiCalculator over each of the two, without and
+ *                with frequency admission.
+ * - Caching only pays when the quote costs more than a lookup (a few cache
+ *   misses into the cache's arrays): it does for `schedule`, not for `reducing`.
+ * - ns/quote is the best of ROUNDS passes; hit rate is from the last pass.
+ */
+public class QuoteCacheBenchmark {
+
+    private static final int DISTINCT = 200_000;
+    private static final int QUOTES = 5_000_000;
+    private static final int CAPACITY = 10_000;
+    private static final double ZIPF_EXPONENT = 0.99;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        SplittableRandom random = new SplittableRandom(11);
+        double[] principal = new double[DISTINCT];
+        double[] rate = new double[DISTINCT];
+        int[] tenure = new int[DISTINCT];
+        for (int i = 0; i < DISTINCT; i++) {
+            principal[i] = 100_000 + 50_000 * random.nextInt(199);
+            rate[i] = 6 + 0.05 * random.nextInt(121);
+            tenure[i] = 12 * (1 + random.nextInt(30));
+        }
+        int[] workload = zipf(random);
+
+        AmortizationEngine engine = LoanFactoryProducer.getLoanFactory(LoanType.HOME).createAmortizationEngine();
+        EmiCalculator reducing = engine::emi;
+        EmiCalculator schedule = (p, r, months) -> {
+            double[] largest = new double[1];
+            engine.forEachInstallment(p, r, months,
+                    (number, emi, paid, interest, balance) -> largest[0] = Math.max(largest[0], emi));
+            return largest[0];
+        };
+        if (!verify(reducing, principal, rate, tenure, workload)) {
+            System.exit(1);
+        }
+
+        System.out.printf("%-10s %10s %10s %12s %12s%n", "mode", "ns/quote", "hit rate", "evictions", "rejections");
+        run("fresh", null, principal, rate, tenure, workload);
+        run("reducing", reducing, principal, rate, tenure, workload);
+        run("lru", new CachingEmiCalculator(reducing, CAPACITY, false), principal, rate, tenure, workload);
+        run("tinylfu", new CachingEmiCalculator(reducing, CAPACITY), principal, rate, tenure, workload);
+        run("schedule", schedule, principal, rate, tenure, workload);
+        run("lru", new CachingEmiCalculator(schedule, CAPACITY, false), principal, rate, tenure, workload);
+        run("tinylfu", new CachingEmiCalculator(schedule, CAPACITY), principal, rate, tenure, workload);
+    }
+
+    private static void run(String mode, EmiCalculator calculator, double[] principal, double[] rate, int[] tenure,
+                            int[] workload) {
+        long best = Long.MAX_VALUE;
+        double sum = 0;
+        CachingEmiCalculator.CacheStats before = null;
+        CachingEmiCalculator.CacheStats after = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            if (calculator instanceof CachingEmiCalculator cache) {
+                before = cache.stats();
+            }
+            long start = System.nanoTime();
+            for (int index : workload) {
+                EmiCalculator quoting = calculator != null ? calculator
+                        : LoanFactoryProducer.getLoanFactory(LoanType.HOME).createEmiCalculator();
+                sum += quoting.calculateEmi(principal[index], rate[index], tenure[index]);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            if (calculator instanceof CachingEmiCalculator cache) {
+                after = cache.stats();
+            }
+        }
+        if (after == null) {
+            System.out.printf("%-10s %10.1f %10s %12s %12s%n", mode, (double) best / QUOTES, "-", "-", "-");
+        } else {
+            long hits = after.hits() - before.hits();
+            long misses = after.misses() - before.misses();
+            System.out.printf("%-10s %10.1f %9.1f%% %,12d %,12d%n", mode, (double) best / QUOTES,
+                    100.0 * hits / (hits + misses), after.evictions() - before.evictions(),
+                    after.rejections() - before.rejections());
+        }
+        if (sum == 42) {
+            System.out.println();
+        }
+    }
+
+    private static boolean verify(EmiCalculator delegate, double[] principal, double[] rate, int[] tenure,
+                                  int[] workload) {
+        CachingEmiCalculator cache = new CachingEmiCalculator(delegate, CAPACITY);
+        boolean ok = true;
+        for (int i = 0; i < 1_000_000 && ok; i++) {
+            int index = workload[i];
+            double expected = delegate.calculateEmi(principal[index], rate[index], tenure[index]);
+            double cached = cache.calculateEmi(principal[index], rate[index], tenure[index]);
+            ok = Double.doubleToRawLongBits(expected) == Double.doubleToRawLongBits(cached);
+        }
+        ok = ok && cache.stats().hitRate() > 0;
+        long hitsBefore = cache.stats().hits();
+        cache.invalidateAll();
+        cache.calculateEmi(principal[workload[0]], rate[workload[0]], tenure[workload[0]]);
+        ok = ok && cache.stats().hits() == hitsBefore;
+        System.out.println(ok ? "cache verified: results equal the delegate's, invalidateAll() drops all entries"
+                : "cache verification FAILED");
+        return ok;
+    }
+
+    // QUOTES indices in [0, DISTINCT), index k drawn with probability proportional to 1 / (k + 1)^s
+    private static int[] zipf(SplittableRandom random) {
+        double[] cumulative = new double[DISTINCT];
+        double total = 0;
+        for (int k = 0; k < DISTINCT; k++) {
+            total += 1 / Math.pow(k + 1, ZIPF_EXPONENT);
+            cumulative[k] = total;
+        }
+        int[] workload = new int[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            int k = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            workload[i] = Math.min(k < 0 ? -k - 1 : k, DISTINCT - 1);
+        }
+        return workload;
+    }
+}